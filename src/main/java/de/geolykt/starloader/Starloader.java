@@ -3,6 +3,8 @@ package de.geolykt.starloader;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
@@ -17,6 +19,8 @@ import de.geolykt.starloader.mod.DirectoryExtensionPrototypeList;
 import de.geolykt.starloader.mod.Extension;
 import de.geolykt.starloader.mod.ExtensionManager;
 import de.geolykt.starloader.mod.ExtensionPrototype;
+import de.geolykt.starloader.transformers.TransformationStatistics;
+import de.geolykt.starloader.transformers.TransformerStatistics;
 import de.geolykt.starloader.util.JavaInterop;
 
 public final class Starloader {
@@ -57,10 +61,25 @@ public final class Starloader {
         Starloader.LOGGER.info("Initializing extension: postinit");
         this.extensions.getExtensions().forEach(Extension::postInitialize);
         Starloader.LOGGER.info("All Extensions initialized within {}ms", (System.currentTimeMillis() - start));
+        // Extensions may register transformers up until now, all of which affect the transformed classes
+        this.extensions.openTransformedClassCache();
+        Starloader.logTransformationStatistics(MinestomRootClassLoader.getInstance().getTransformationStatistics());
         // FIXME don't use shutdown hooks and/or have them deadlock-proof.
         Runtime.getRuntime().addShutdownHook(new Thread(this.extensions::shutdown, "ExtensionsShutdownThread"));
     }
 
+    private static void logTransformationStatistics(@NotNull TransformationStatistics statistics) {
+        Starloader.LOGGER.info("Parsed {} classes within {}ms, wrote {} transformed classes within {}ms and defined {} classes within {}ms.",
+                statistics.getParseCount(), statistics.getParseNanos() / 1_000_000L,
+                statistics.getWriteCount(), statistics.getWriteNanos() / 1_000_000L,
+                statistics.getDefineCount(), statistics.getDefineNanos() / 1_000_000L);
+        List<@NotNull TransformerStatistics> transformers = new ArrayList<>(statistics.getTransformers());
+        transformers.sort(Comparator.comparingLong(TransformerStatistics::getTransformNanos).reversed());
+        for (TransformerStatistics transformer : transformers) {
+            Starloader.LOGGER.info(" - {}", transformer);
+        }
+    }
+
     @Internal
     public static void start(@NotNull List<@NotNull ExtensionPrototype> extensionSource, @NotNull Path modDir) {
         if (Starloader.instance != null) {
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
@@ -21,13 +22,26 @@ import de.geolykt.starloader.deobf.access.AccessFlagModifier.Type;
 @ScheduledForRemoval(inVersion = "5.0.0")
 public final class AccessTransformInfo {
 
+    /**
+     * Copy-on-write as classes are transformed (and thus the modifiers iterated) concurrently
+     * while further access wideners may get read.
+     */
     @NotNull
-    final List<AccessFlagModifier> modifiers = new ArrayList<>();
+    final List<AccessFlagModifier> modifiers = new CopyOnWriteArrayList<>();
 
     public List<AccessFlagModifier> getModifiers() {
         return Collections.unmodifiableList(modifiers);
     }
 
+    public boolean isTarget(String internalName, boolean runtime) {
+        for (AccessFlagModifier mod : modifiers) {
+            if (!(runtime && mod.isCompileOnly) && mod.clazz.equals(internalName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean apply(ClassNode node, boolean runtime) {
         boolean modified = false;
         for (AccessFlagModifier mod : modifiers) {
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.MixinEnvironment;
+import org.spongepowered.asm.mixin.Mixins;
 import org.spongepowered.asm.mixin.transformer.IMixinTransformer;
 import org.spongepowered.asm.mixin.transformer.IMixinTransformerFactory;
 import org.stianloader.micromixin.backports.MicromixinBackportsBootstrap;
@@ -15,12 +16,25 @@ import org.stianloader.sll.transform.CodeTransformer;
 
 import net.minestom.server.extras.selfmodification.MinestomRootClassLoader;
 
+import de.geolykt.starloader.launcher.service.MixinAuditTrail;
 import de.geolykt.starloader.launcher.service.SLMixinService;
 import de.geolykt.starloader.transformers.ASMTransformer;
 
 public final class ASMMixinTransformer extends ASMTransformer implements CodeTransformer {
     // TODO: Refuse classloading for any mixin classes
 
+    /**
+     * The audit trail that records the time mixin spends transforming a class, or <code>null</code> if it is disabled.
+     */
+    @Nullable
+    private final MixinAuditTrail auditTrail;
+
+    /**
+     * The classes targeted by the registered mixin configs, or <code>null</code> if mixin has not transformed any class yet.
+     */
+    @Nullable
+    private volatile MixinTargetIndex targetIndex;
+
     @NotNull
     private final IMixinTransformer transformer;
 
@@ -30,6 +44,7 @@ public final class ASMMixinTransformer extends ASMTransformer implements CodeTra
             throw new NullPointerException("Unable to create IMixinTransformer instance as it's factory went unregistered.");
         }
         this.transformer = Objects.requireNonNull(factory.createTransformer(), "factory may not create a null transformer");
+        this.auditTrail = service.getAuditTrail();
         MicromixinBackportsBootstrap.init(this.transformer);
     }
 
@@ -46,9 +61,24 @@ public final class ASMMixinTransformer extends ASMTransformer implements CodeTra
         return this.transformClass(source, null);
     }
 
+    /**
+     * Obtains the bytecode of a class that is generated by mixin at runtime, such as the argument bundles used by <code>@ModifyArgs</code>.
+     *
+     * @param internalName The internal name of the class
+     * @return The bytecode of the class, or <code>null</code> if mixin does not generate a class of that name.
+     */
+    byte @Nullable[] generateClass(@NotNull String internalName) {
+        return this.transformer.generateClass(MixinEnvironment.getEnvironment(MixinEnvironment.Phase.DEFAULT), internalName.replace('/', '.'));
+    }
+
     @Override
     public boolean isValidTarget(@NotNull String internalName, @Nullable URI codeSourceURI) {
-        return true; // TODO check whether we can evaluate whether a class is a target of a mixin or not
+        MixinTargetIndex index = this.targetIndex;
+        if (index == null || !index.isCurrent()) {
+            // Configs were registered since the index was built (as done by ExtensionManager#setupCodeModifiers), or were not selected yet
+            return true;
+        }
+        return index.isTarget(internalName);
     }
 
     @Override
@@ -76,7 +106,27 @@ public final class ASMMixinTransformer extends ASMTransformer implements CodeTra
 
     @Override
     public boolean transformClass(@NotNull ClassNode node, @Nullable URI codeSourceURI) {
-        boolean ret = this.transformer.transformClass(MixinEnvironment.getEnvironment(MixinEnvironment.Phase.DEFAULT), node.name.replace("/", "."), node);
+        int configCount = Mixins.getConfigs().size();
+        String name = node.name.replace("/", ".");
+        MixinAuditTrail auditTrail = this.auditTrail;
+        boolean ret;
+        if (auditTrail == null) {
+            ret = this.transformer.transformClass(MixinEnvironment.getEnvironment(MixinEnvironment.Phase.DEFAULT), name, node);
+        } else {
+            auditTrail.begin(name);
+            long start = System.nanoTime();
+            try {
+                ret = this.transformer.transformClass(MixinEnvironment.getEnvironment(MixinEnvironment.Phase.DEFAULT), name, node);
+            } finally {
+                auditTrail.end(System.nanoTime() - start);
+            }
+        }
+        // Mixin selects and prepares all pending configs before transforming a class, which is why the targets
+        // of the configs that were registered before the call are known now
+        MixinTargetIndex index = this.targetIndex;
+        if ((index == null || index.getConfigCount() != configCount) && Mixins.getUnvisitedCount() == 0) {
+            this.targetIndex = MixinTargetIndex.build(configCount);
+        }
         return ret;
     }
 }
@@ -0,0 +1,124 @@
+package de.geolykt.starloader.launcher;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.llamalad7.mixinextras.MixinExtrasBootstrap;
+
+import net.minestom.server.extras.selfmodification.ClassBake;
+import net.minestom.server.extras.selfmodification.MinestomRootClassLoader;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+
+/**
+ * Launcher that transforms all classes ahead of time ("bakes" them) instead of starting the game.
+ * The configuration is read exactly like {@link CLILauncher} does, that is the class path is read from
+ * <code>config.json</code> and extensions are read from the <code>mods</code> directory.
+ * After the extensions have been initialized, every class of the class path and of the extensions is put through the
+ * transformation pipeline. The output is written to <code>.sll-bake</code> (configurable through the
+ * <code>org.stianloader.sll.bakeDirectory</code> system property).
+ *
+ * <p>{@link CLILauncher} uses the baked classes as long as the launcher, the class path and the contents of the
+ * mods directory did not change since the classes were baked. Should the inputs have changed, the regular transformation pipeline is used instead.
+ * Classes generated at runtime by mixin or MixinExtras are baked as well, in which case the bake is {@link ClassBake#isComplete() complete}
+ * and mixin, access wideners, reversible access setters and code modifiers are not set up at all when launching. Should a referenced generated
+ * class not be obtainable, the classes referencing it are not baked and the transformation pipeline is set up as usual, as classes
+ * unknown to the bake still need to go through it.
+ * Note that extensions are still initialized and may still register transformers, which will however only apply on classes unknown
+ * to the bake.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+public class CLIBakeLauncher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CLIBakeLauncher.class);
+
+    /**
+     * Obtains the provider of the bytecode of classes generated at runtime. Classes generated by MixinExtras (such as the
+     * implementations of local references) are already defined at this point, and MixinExtras retains their bytecode. It however does
+     * not expose the bytecode through it's API, which is why it is obtained reflectively. Classes generated by mixin are generated on demand.
+     *
+     * @param cl The root classloader
+     * @return The provider of the bytecode of generated classes, keyed by the internal name of the class
+     */
+    @NotNull
+    private static Function<@NotNull String, byte @Nullable[]> getGeneratedClassProvider(@NotNull MinestomRootClassLoader cl) {
+        Map<String, byte[]> mixinExtrasClasses = new HashMap<>();
+        try {
+            Class<?> classGenUtils = Class.forName("com.llamalad7.mixinextras.utils.ClassGenUtils", false, MixinExtrasBootstrap.class.getClassLoader());
+            Map<?, ?> definitions = (Map<?, ?>) classGenUtils.getMethod("getDefinitions").invoke(null);
+            definitions.forEach((name, bytecode) -> {
+                if (name instanceof String && bytecode instanceof byte[]) {
+                    mixinExtrasClasses.put(((String) name).replace('.', '/'), (byte[]) bytecode);
+                }
+            });
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            CLIBakeLauncher.LOGGER.warn("Unable to obtain the classes generated by MixinExtras; classes referencing them will not be baked.", e);
+        }
+
+        ASMMixinTransformer mixinTransformer = null;
+        for (ASMTransformer transformer : cl.getASMTransformers()) {
+            if (transformer instanceof ASMMixinTransformer) {
+                mixinTransformer = (ASMMixinTransformer) transformer;
+                break;
+            }
+        }
+        ASMMixinTransformer mixin = mixinTransformer;
+        return (name) -> {
+            byte[] bytecode = mixinExtrasClasses.get(name);
+            if (bytecode == null && mixin != null) {
+                bytecode = mixin.generateClass(name);
+            }
+            return bytecode;
+        };
+    }
+
+    public static void main(String[] args) {
+        Set<Path> bootPaths = CLILauncher.readBootPaths();
+
+        MinestomRootClassLoader cl = MinestomRootClassLoader.getInstance();
+        bootPaths.forEach(p -> {
+            try {
+                cl.addURL(p.toUri().toURL());
+            } catch (MalformedURLException e) {
+                e.printStackTrace();
+            }
+        });
+
+        ClassBake bake = ClassBake.record();
+        cl.setClassBake(bake);
+        if (!CLILauncher.startExtensions(cl, args)) {
+            System.exit(1);
+            return;
+        }
+
+        try {
+            // Computed after the extensions were loaded, as loading them may download their dependencies into the mods directory
+            String fingerprint = CLILauncher.computeBakeFingerprint(bootPaths, CLILauncher.MODS_DIRECTORY);
+            int failures = bake.bakeRemaining(cl);
+            int discarded = bake.discardDependentsOfGeneratedClasses(cl, CLIBakeLauncher.getGeneratedClassProvider(cl));
+            if (discarded != 0) {
+                CLIBakeLauncher.LOGGER.info("{} classes reference classes generated at runtime that could not be baked and will be transformed when launching instead.", discarded);
+            }
+            bake.write(CLILauncher.BAKE_DIRECTORY, fingerprint);
+            CLIBakeLauncher.LOGGER.info("Baked classes into {} ({} classes could not be transformed).", CLILauncher.BAKE_DIRECTORY.toAbsolutePath(), failures);
+        } catch (IOException e) {
+            CLIBakeLauncher.LOGGER.error("Unable to bake classes", e);
+            System.exit(1);
+            return;
+        }
+        System.exit(0);
+    }
+}
@@ -1,7 +1,6 @@
 package de.geolykt.starloader.launcher;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.invoke.MethodHandles;
@@ -14,11 +13,17 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.LoggerFactory;
@@ -26,15 +31,47 @@ import org.spongepowered.asm.mixin.MixinEnvironment.Phase;
 
 import com.llamalad7.mixinextras.MixinExtrasBootstrap;
 
+import net.minestom.server.extras.selfmodification.ClassBake;
+import net.minestom.server.extras.selfmodification.ClassLoadTrace;
+import net.minestom.server.extras.selfmodification.ClassPreloader;
 import net.minestom.server.extras.selfmodification.MinestomRootClassLoader;
 
 import de.geolykt.starloader.launcher.service.SLMixinService;
 import de.geolykt.starloader.mod.DirectoryExtensionPrototypeList;
 import de.geolykt.starloader.mod.NamedExtensionPrototype;
+import de.geolykt.starloader.util.InputFingerprint;
 import de.geolykt.starloader.util.JavaInterop;
 
 public class CLILauncher {
 
+    /**
+     * The directory in which {@link CLIBakeLauncher} stores baked classes.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @AvailableSince("4.0.0-a20261018")
+    static final Path BAKE_DIRECTORY = Paths.get(System.getProperty("org.stianloader.sll.bakeDirectory", ".sll-bake"));
+
+    /**
+     * Whether baked classes should never be used, even if they are up to date.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    private static final boolean IGNORE_BAKE = Boolean.getBoolean("org.stianloader.sll.ignoreBake");
+
+    @NotNull
+    static final Path MODS_DIRECTORY = Paths.get("mods");
+
+    /**
+     * The amount of threads used to preload classes if {@link ClassPreloader#ENABLED preloading is enabled}.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    private static final int PRELOAD_THREADS = Integer.getInteger("org.stianloader.sll.preloadThreads", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+
     private static Set<Path> getPaths(JSONObject jsonConfig) {
 
         Set<Path> extraPaths = new HashSet<>();
@@ -55,37 +92,75 @@ public class CLILauncher {
         return extraPaths;
     }
 
-    public static void main(String[] args) {
-        Set<Path> bootPaths = null;
+    /**
+     * Computes the fingerprint of the inputs of the transformation pipeline used by {@link CLIBakeLauncher}:
+     * The launcher itself, the boot class path and the contents of the mods directory.
+     *
+     * @param bootPaths The paths on the boot class path
+     * @param modsDirectory The directory from which extensions are loaded
+     * @return The fingerprint of the inputs
+     * @throws IOException If any input could not be read
+     */
+    @NotNull
+    static String computeBakeFingerprint(@NotNull Set<Path> bootPaths, @NotNull Path modsDirectory) throws IOException {
+        InputFingerprint fingerprint = new InputFingerprint();
+        CodeSource launcherSource = CLILauncher.class.getProtectionDomain().getCodeSource();
+        fingerprint.addURL(launcherSource == null ? null : launcherSource.getLocation());
+        for (Path path : new TreeSet<>(bootPaths)) {
+            fingerprint.addPath(path);
+        }
+        // The transformed class cache changes on every launch, but is irrelevant to the bake
+        Path transformCache = modsDirectory.resolve(".sll-transform-cache");
+        fingerprint.addPath(modsDirectory, (file) -> !file.startsWith(transformCache));
+        return fingerprint.finish();
+    }
+
+    @NotNull
+    static Set<Path> readBootPaths() {
         try {
             String read = new String(Files.readAllBytes(Paths.get("config.json")), StandardCharsets.UTF_8);
             JSONObject json = new JSONObject(read);
-            bootPaths = getPaths(json);
+            return getPaths(json);
         } catch (JSONException | IOException e) {
             e.printStackTrace();
-            if (bootPaths == null) {
-                bootPaths = new HashSet<>();
-            }
+            return new HashSet<>();
         }
+    }
 
-        MinestomRootClassLoader cl = MinestomRootClassLoader.getInstance();
-        bootPaths.forEach(p -> {
-            try {
-                cl.addURL(p.toUri().toURL());
-            } catch (MalformedURLException e) {
-                e.printStackTrace();
+    /**
+     * Bootstraps mixin and loads the extensions.
+     *
+     * <p>Mixin and MixinExtras are not bootstrapped if a {@link ClassBake#isComplete() complete} bake is used, as the bake
+     * then contains the transformed bytecode of every class as well as the classes mixin generates at runtime. Otherwise they are
+     * bootstrapped even if baked classes are used, as the bake only replaces the transformation pipeline for the classes it knows.
+     * Other classes (including the classes whose baked bytecode would reference classes that could not be baked, see
+     * {@link ClassBake#discardDependentsOfGeneratedClasses(MinestomRootClassLoader, java.util.function.Function)}) still need to be
+     * transformed by mixin.
+     *
+     * @param cl The root classloader
+     * @param args The launch arguments
+     * @return True if the extensions were started successfully, false otherwise.
+     */
+    static boolean startExtensions(@NotNull MinestomRootClassLoader cl, String[] args) {
+        ClassBake bake = cl.getClassBake();
+        boolean completeBake = bake != null && !bake.isRecording() && bake.isComplete();
+        if (completeBake) {
+            LoggerFactory.getLogger(CLILauncher.class).info("All classes are baked; mixin will not be bootstrapped.");
+            // Mixin classes for example could not be transformed and must not be loaded, which mixin would otherwise ensure
+            for (String name : bake.getFailedClasses()) {
+                cl.registerInvalidClass(name.replace('/', '.'));
             }
-        });
-
-        // Start mixins & load extensions
-        Utils.startMixin(args);
-        cl.addASMTransformer(new ASMMixinTransformer(SLMixinService.getInstance()));
-        MixinExtrasBootstrap.init(); // The MixinExtras bootstrap MUST be initialized after the ASM transformer
-        SLMixinService.getInstance().getPhaseConsumer().accept(Phase.PREINIT);
+        } else {
+            // Start mixins & load extensions
+            Utils.startMixin(args);
+            cl.addASMTransformer(new ASMMixinTransformer(SLMixinService.getInstance()));
+            MixinExtrasBootstrap.init(); // The MixinExtras bootstrap MUST be initialized after the ASM transformer
+            SLMixinService.getInstance().getPhaseConsumer().accept(Phase.PREINIT);
+        }
         // ensure extensions are loaded when starting the server
         try {
             Class<?> slClass = cl.loadClass("de.geolykt.starloader.Starloader");
-            DirectoryExtensionPrototypeList modSource = new DirectoryExtensionPrototypeList(new File("mods"));
+            DirectoryExtensionPrototypeList modSource = new DirectoryExtensionPrototypeList(CLILauncher.MODS_DIRECTORY.toFile());
 
             LoggerFactory.getLogger(CLILauncher.class).info("Using prototypes from following sources:");
             modSource.forEach((prototype) -> {
@@ -101,11 +176,72 @@ public class CLILauncher {
             MethodHandles.lookup().findStatic(slClass, "start", MethodType.methodType(void.class, DirectoryExtensionPrototypeList.class)).invokeExact(modSource);
         } catch (Throwable t) {
             t.printStackTrace();
+            return false;
+        }
+
+        if (!completeBake) {
+            SLMixinService.getInstance().getPhaseConsumer().accept(Phase.INIT);
+            SLMixinService.getInstance().getPhaseConsumer().accept(Phase.DEFAULT);
+            SLMixinService.getInstance().clearClassNodeCache();
+            SLMixinService.getInstance().exportAuditTrailOnShutdown(Utils.getLogDirectory().resolve("mixin-audit-trail.json"));
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        Set<Path> bootPaths = CLILauncher.readBootPaths();
+
+        MinestomRootClassLoader cl = MinestomRootClassLoader.getInstance();
+        bootPaths.forEach(p -> {
+            try {
+                cl.addURL(p.toUri().toURL());
+            } catch (MalformedURLException e) {
+                e.printStackTrace();
+            }
+        });
+
+        boolean baked = false;
+        if (!CLILauncher.IGNORE_BAKE) {
+            try {
+                ClassBake bake = ClassBake.load(CLILauncher.BAKE_DIRECTORY, CLILauncher.computeBakeFingerprint(bootPaths, CLILauncher.MODS_DIRECTORY));
+                if (bake != null) {
+                    LoggerFactory.getLogger(CLILauncher.class).info("Using baked classes from {}", CLILauncher.BAKE_DIRECTORY);
+                    cl.setClassBake(bake);
+                    baked = true;
+                }
+            } catch (IOException | RuntimeException e) {
+                LoggerFactory.getLogger(CLILauncher.class).warn("Unable to load baked classes from {}; running the regular transformation pipeline instead.", CLILauncher.BAKE_DIRECTORY, e);
+            }
+        }
+
+        List<@NotNull String> tracedClasses = Collections.emptyList();
+        if (ClassPreloader.ENABLED) {
+            Path traceFile = Utils.getLogDirectory().resolve("class-load-trace.txt");
+            try {
+                tracedClasses = ClassLoadTrace.read(traceFile);
+            } catch (IOException e) {
+                LoggerFactory.getLogger(CLILauncher.class).warn("Unable to read the class load trace of the previous launch.", e);
+            }
+            ClassLoadTrace trace = new ClassLoadTrace();
+            cl.setClassLoadTrace(trace);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    trace.write(traceFile);
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(CLILauncher.class).warn("Unable to write the class load trace.", e);
+                }
+            }, "SLL-ClassLoadTraceWriter"));
+        }
+
+        if (!CLILauncher.startExtensions(cl, args)) {
             return;
         }
 
-        SLMixinService.getInstance().getPhaseConsumer().accept(Phase.INIT);
-        SLMixinService.getInstance().getPhaseConsumer().accept(Phase.DEFAULT);
+        if (ClassPreloader.ENABLED && !baked) {
+            // Extension preload lists were queued while loading extensions, now that the transformer pool is complete, start preloading
+            cl.getClassPreloader().addClassNames(tracedClasses);
+            cl.getClassPreloader().start(CLILauncher.PRELOAD_THREADS);
+        }
 
         // Find & launch main class
         String mainClass = System.getProperty("de.geolykt.starloader.launcher.CLILauncher.mainClass");
@@ -195,6 +195,8 @@ public class IDELauncher {
 
         SLMixinService.getInstance().getPhaseConsumer().accept(Phase.INIT);
         SLMixinService.getInstance().getPhaseConsumer().accept(Phase.DEFAULT);
+        SLMixinService.getInstance().clearClassNodeCache();
+        SLMixinService.getInstance().exportAuditTrailOnShutdown(Utils.getLogDirectory().resolve("mixin-audit-trail.json"));
         LoggerFactory.getLogger(IDELauncher.class).info("Starting main class " + mainClass + " with arguments " + Arrays.toString(args));
 
         try {
@@ -0,0 +1,120 @@
+package de.geolykt.starloader.launcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.asm.mixin.Mixins;
+import org.spongepowered.asm.mixin.extensibility.IMixinConfig;
+import org.spongepowered.asm.mixin.transformer.Config;
+
+/**
+ * Snapshot of the classes targeted by the registered mixin configs, used by {@link ASMMixinTransformer#isValidTarget(String, java.net.URI)}
+ * to not hand classes to mixin that no mixin targets. Classes within the mixin package of a config are always considered
+ * to be targets, as mixin needs to see them in order to refuse loading mixin classes or to process accessor mixins.
+ *
+ * <p>The targets of a config are only known once mixin selected and prepared the config, which happens lazily
+ * when mixin transforms a class. As long as there are unselected configs, or if the targets of a config could not be
+ * resolved, every class is considered to be a target.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class MixinTargetIndex {
+
+    /**
+     * Builds a snapshot of the targets of all registered configs. Should only be called once all configs that were registered
+     * at the time the config count was obtained were selected by mixin.
+     *
+     * @param configCount The amount of configs registered before mixin selected the configs.
+     * @return The newly built index, which may be conservative.
+     */
+    @NotNull
+    static MixinTargetIndex build(int configCount) {
+        Set<String> targets = new HashSet<>();
+        List<String> mixinPackages = new ArrayList<>();
+        for (Config handle : Mixins.getConfigs()) {
+            IMixinConfig config = handle.getConfig();
+            Set<String> configTargets = config == null ? null : config.getTargets();
+            if (configTargets == null) {
+                LoggerFactory.getLogger(MixinTargetIndex.class).debug("Unable to resolve the targets of mixin config {}; all classes will be passed to mixin.", handle.getName());
+                return new MixinTargetIndex(configCount, null, new String[0]);
+            }
+            String mixinPackage = config.getMixinPackage();
+            if (mixinPackage != null && !mixinPackage.isEmpty()) {
+                mixinPackage = mixinPackage.replace('.', '/');
+                mixinPackages.add(mixinPackage.endsWith("/") ? mixinPackage : mixinPackage + "/");
+            }
+            for (String target : configTargets) {
+                if (target.indexOf('*') != -1) {
+                    LoggerFactory.getLogger(MixinTargetIndex.class).debug("Mixin config {} uses the wildcard target '{}'; all classes will be passed to mixin.", handle.getName(), target);
+                    return new MixinTargetIndex(configCount, null, new String[0]);
+                }
+                targets.add(target.replace('.', '/'));
+            }
+        }
+        return new MixinTargetIndex(configCount, targets, mixinPackages.toArray(new String[0]));
+    }
+
+    private final int configCount;
+
+    private final String @NotNull[] mixinPackages;
+
+    /**
+     * The internal names of the targeted classes, or <code>null</code> if all classes are considered to be targets.
+     */
+    @Nullable
+    private final Set<String> targets;
+
+    private MixinTargetIndex(int configCount, @Nullable Set<String> targets, @NotNull String @NotNull[] mixinPackages) {
+        this.configCount = configCount;
+        this.targets = targets;
+        this.mixinPackages = mixinPackages;
+    }
+
+    /**
+     * Obtains the amount of configs that were known to be selected when this index was built.
+     *
+     * @return The amount of configs
+     */
+    @Contract(pure = true)
+    int getConfigCount() {
+        return this.configCount;
+    }
+
+    /**
+     * Checks whether no config was registered since this index was built and whether mixin selected all configs.
+     * An index that is not current must not be used to rule out a class as a target.
+     *
+     * @return True if the index is current, false otherwise.
+     */
+    boolean isCurrent() {
+        return Mixins.getConfigs().size() == this.configCount && Mixins.getUnvisitedCount() == 0;
+    }
+
+    /**
+     * Checks whether a class might be targeted by a mixin or belongs to the mixin package of a config.
+     *
+     * @param internalName The internal name of the class
+     * @return False if the class is definitely not relevant to mixin, true otherwise.
+     */
+    @Contract(pure = true)
+    boolean isTarget(@NotNull String internalName) {
+        Set<String> targets = this.targets;
+        if (targets == null || targets.contains(internalName)) {
+            return true;
+        }
+        for (String mixinPackage : this.mixinPackages) {
+            if (internalName.startsWith(mixinPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -162,7 +162,7 @@ public final class Utils {
     protected static final void startMixin(String[] args) {
         MixinBootstrap.init();
         MixinBootstrap.getPlatform().inject();
-        Mixins.getConfigs().forEach(c -> MinestomRootClassLoader.getInstance().protectedPackages.add(c.getConfig().getMixinPackage()));
+        Mixins.getConfigs().forEach(c -> MinestomRootClassLoader.getInstance().addProtectedPackage(c.getConfig().getMixinPackage()));
     }
 
     @Nullable
@@ -0,0 +1,129 @@
+package de.geolykt.starloader.launcher.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Size-bounded cache of the {@link ClassNode ClassNodes} handed out by the bytecode provider of the {@link SLMixinService},
+ * as mixin requests the nodes of mixin classes, their targets and their supertypes over and over again.
+ * Nodes are keyed by the name of the class and the flags they were read with.
+ *
+ * <p>The cached nodes are never handed out, instead each lookup returns a copy of the cached node, as mixin freely modifies
+ * the nodes it obtains. Once the cache is full, the least recently used node is evicted.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class ClassNodeCache {
+
+    /**
+     * The maximum amount of nodes held by the cache, where 0 disables the cache.
+     */
+    static final int CAPACITY = Integer.getInteger("org.stianloader.sll.classNodeCacheSize", 1024);
+
+    @NotNull
+    private static String getKey(@NotNull String name, int readerFlags) {
+        return readerFlags + ":" + name;
+    }
+
+    @NotNull
+    private static ClassNode copy(@NotNull ClassNode node) {
+        ClassNode copy = new ClassNode();
+        node.accept(copy);
+        return copy;
+    }
+
+    @NotNull
+    private final LongAdder evictions = new LongAdder();
+
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+
+    @NotNull
+    private final LinkedHashMap<String, ClassNode> nodes = new LinkedHashMap<String, ClassNode>(16, 0.75F, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ClassNode> eldest) {
+            if (this.size() > ClassNodeCache.CAPACITY) {
+                ClassNodeCache.this.evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Evicts all nodes from the cache.
+     */
+    void clear() {
+        synchronized (this.nodes) {
+            this.nodes.clear();
+        }
+    }
+
+    /**
+     * Obtains a copy of a cached node.
+     *
+     * @param name The binary name of the class
+     * @param readerFlags The flags the node was read with
+     * @return A copy of the cached node, or <code>null</code> if no such node is cached.
+     */
+    @Nullable
+    ClassNode get(@NotNull String name, int readerFlags) {
+        ClassNode node;
+        synchronized (this.nodes) {
+            node = this.nodes.get(ClassNodeCache.getKey(name, readerFlags));
+        }
+        if (node == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return ClassNodeCache.copy(node);
+    }
+
+    @Contract(pure = true)
+    long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    @Contract(pure = true)
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    @Contract(pure = true)
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Caches a freshly read node. The node must no longer be modified by the caller, instead the returned copy should be used.
+     *
+     * @param name The binary name of the class
+     * @param readerFlags The flags the node was read with
+     * @param node The node to cache
+     * @return A copy of the node.
+     */
+    @NotNull
+    ClassNode put(@NotNull String name, int readerFlags, @NotNull ClassNode node) {
+        if (ClassNodeCache.CAPACITY <= 0) {
+            return node;
+        }
+        synchronized (this.nodes) {
+            this.nodes.put(ClassNodeCache.getKey(name, readerFlags), node);
+        }
+        return ClassNodeCache.copy(node);
+    }
+}
@@ -0,0 +1,292 @@
+package de.geolykt.starloader.launcher.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.spongepowered.asm.mixin.Mixins;
+import org.spongepowered.asm.mixin.extensibility.IMixinConfig;
+import org.spongepowered.asm.mixin.transformer.Config;
+import org.spongepowered.asm.service.IMixinAuditTrail;
+
+/**
+ * {@link IMixinAuditTrail} that records which mixins are applied to which class, along with the time mixin spent
+ * transforming the class. Mixin does not report the time spent on individual mixins, which is why the time is only
+ * known per target class. Transforming a class may load and thus transform further classes, in which case the time
+ * spent on these classes is only attributed to them and not to the class that caused them to be loaded.
+ *
+ * <p>Every thread records into it's own buffer, so recording does not require any locking. The recorded data can be
+ * {@link #write(Path) written} as JSON at any point in time, which only includes applications that are completed.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class MixinAuditTrail implements IMixinAuditTrail {
+
+    /**
+     * A completed invocation of mixin for a target class. Immutable, as it may be read by any thread once published.
+     */
+    private static final class Application {
+        @NotNull
+        private final List<String> mixins;
+        private final long nanos;
+        private final boolean postProcessed;
+        @NotNull
+        private final String target;
+
+        private Application(@NotNull String target, @NotNull List<String> mixins, long nanos, boolean postProcessed) {
+            this.target = target;
+            this.mixins = mixins;
+            this.nanos = nanos;
+            this.postProcessed = postProcessed;
+        }
+    }
+
+    /**
+     * An invocation of mixin for a target class that is still in progress. Only ever accessed by the thread that started it.
+     */
+    private static final class PendingApplication {
+        /**
+         * The time spent transforming other classes while transforming the target class, in nanoseconds.
+         */
+        private long childNanos;
+        @NotNull
+        private final List<String> mixins = new ArrayList<>(2);
+        private boolean postProcessed;
+        @NotNull
+        private final String target;
+
+        private PendingApplication(@NotNull String target) {
+            this.target = target;
+        }
+    }
+
+    private static final class ThreadBuffer {
+        /**
+         * Completed applications. Only appended to by the owning thread, but read by the thread that writes the audit trail.
+         */
+        @NotNull
+        private final Queue<Application> applications = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The applications that are in progress on the owning thread, with the innermost application first.
+         * Transforming a class may cause further classes to be loaded and transformed, which is why there may be several.
+         */
+        @NotNull
+        private final Deque<PendingApplication> pending = new ArrayDeque<>();
+    }
+
+    /**
+     * Whether mixin applications should be recorded.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("org.stianloader.sll.mixinAuditTrail");
+
+    @NotNull
+    private final Queue<ThreadBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The names of the extensions that registered a mixin config, keyed by the name of the config.
+     */
+    @NotNull
+    private final Map<String, String> configOwners = new ConcurrentHashMap<>();
+
+    /**
+     * The generators of generated classes, keyed by the name of the generated class.
+     */
+    @NotNull
+    private final Map<String, String> generatedClasses = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final ThreadLocal<ThreadBuffer> threadBuffer = ThreadLocal.withInitial(() -> {
+        ThreadBuffer buffer = new ThreadBuffer();
+        this.buffers.add(buffer);
+        return buffer;
+    });
+
+    /**
+     * Marks the start of mixin transforming a class on the current thread. Must be followed by {@link #end(long)} on the same thread.
+     *
+     * @param target The binary name of the class
+     */
+    public void begin(@NotNull String target) {
+        this.threadBuffer.get().pending.push(new PendingApplication(target));
+    }
+
+    /**
+     * Marks the end of mixin transforming the class passed to the last unmatched call of {@link #begin(String)} on the current thread.
+     *
+     * @param nanos The time mixin spent transforming the class, in nanoseconds. This includes the time spent transforming any classes that
+     * were loaded in the meantime, which is subtracted by this method.
+     */
+    public void end(long nanos) {
+        Deque<PendingApplication> pending = this.threadBuffer.get().pending;
+        PendingApplication application = pending.poll();
+        if (application == null) {
+            return;
+        }
+        PendingApplication parent = pending.peek();
+        if (parent != null) {
+            parent.childNanos += nanos;
+        }
+        if (!application.mixins.isEmpty() || application.postProcessed) {
+            List<String> mixins = Collections.unmodifiableList(new ArrayList<>(application.mixins));
+            this.publish(new Application(application.target, mixins, nanos - application.childNanos, application.postProcessed));
+        }
+    }
+
+    /**
+     * Obtains the innermost application in progress on the current thread for the given class.
+     *
+     * @param className The binary name of the target class
+     * @return The application, or <code>null</code> if the class is not transformed through the ASMMixinTransformer on the current thread.
+     */
+    @Nullable
+    private PendingApplication getPendingApplication(@NotNull String className) {
+        for (PendingApplication application : this.threadBuffer.get().pending) {
+            if (application.target.equals(className)) {
+                return application;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private String getOwner(@NotNull String mixinName) {
+        // Mixin names are usually formatted as <config>:<mixin class>
+        int separator = mixinName.indexOf(':');
+        if (separator != -1) {
+            String owner = this.configOwners.get(mixinName.substring(0, separator));
+            if (owner != null) {
+                return owner;
+            }
+        }
+        String mixinClass = mixinName.substring(separator + 1);
+        for (Config handle : Mixins.getConfigs()) {
+            IMixinConfig config = handle.getConfig();
+            String mixinPackage = config == null ? null : config.getMixinPackage();
+            if (mixinPackage != null && !mixinPackage.isEmpty() && mixinClass.startsWith(mixinPackage)) {
+                return this.configOwners.get(handle.getName());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onApply(String className, String mixinName) {
+        PendingApplication application = this.getPendingApplication(className);
+        if (application != null) {
+            application.mixins.add(mixinName);
+        } else {
+            // Not applied through the ASMMixinTransformer, meaning that the time spent is unknown
+            this.publish(new Application(className, Collections.singletonList(mixinName), 0L, false));
+        }
+    }
+
+    @Override
+    public void onGenerate(String className, String generatorName) {
+        this.generatedClasses.put(className, generatorName);
+    }
+
+    @Override
+    public void onPostProcess(String className) {
+        PendingApplication application = this.getPendingApplication(className);
+        if (application != null) {
+            application.postProcessed = true;
+        } else {
+            this.publish(new Application(className, Collections.emptyList(), 0L, true));
+        }
+    }
+
+    private void publish(@NotNull Application application) {
+        this.threadBuffer.get().applications.add(application);
+    }
+
+    /**
+     * Registers the extension that registered a mixin config, which is reported as the owner of the mixins of the config.
+     *
+     * @param configName The name of the mixin config, as passed to {@link Mixins#addConfiguration(String)}.
+     * @param extensionName The name of the extension
+     */
+    public void registerConfigOwner(@NotNull String configName, @NotNull String extensionName) {
+        this.configOwners.put(configName, extensionName);
+    }
+
+    /**
+     * Writes the recorded applications as JSON, where the target classes are sorted by the time mixin spent transforming them
+     * (in descending order). Applications that are still in progress are not included.
+     *
+     * @param file The file to write to
+     * @throws IOException If the file could not be written
+     */
+    public void write(@NotNull Path file) throws IOException {
+        Map<String, long[]> statistics = new LinkedHashMap<>();
+        Map<String, Set<String>> mixins = new LinkedHashMap<>();
+        Set<String> postProcessed = new LinkedHashSet<>();
+        for (ThreadBuffer buffer : this.buffers) {
+            for (Application application : buffer.applications) {
+                long[] targetStatistics = statistics.computeIfAbsent(application.target, (target) -> new long[2]);
+                targetStatistics[0]++;
+                targetStatistics[1] += application.nanos;
+                mixins.computeIfAbsent(application.target, (target) -> new LinkedHashSet<>()).addAll(application.mixins);
+                if (application.postProcessed) {
+                    postProcessed.add(application.target);
+                }
+            }
+        }
+
+        List<String> targets = new ArrayList<>(statistics.keySet());
+        targets.sort((a, b) -> Long.compare(statistics.get(b)[1], statistics.get(a)[1]));
+        JSONArray targetsJSON = new JSONArray();
+        for (String target : targets) {
+            JSONObject targetJSON = new JSONObject();
+            targetJSON.put("target", target);
+            targetJSON.put("transformations", statistics.get(target)[0]);
+            targetJSON.put("nanos", statistics.get(target)[1]);
+            targetJSON.put("postProcessed", postProcessed.contains(target));
+            JSONArray mixinsJSON = new JSONArray();
+            for (String mixin : mixins.get(target)) {
+                JSONObject mixinJSON = new JSONObject();
+                mixinJSON.put("mixin", mixin);
+                String owner = this.getOwner(mixin);
+                if (owner != null) {
+                    mixinJSON.put("extension", owner);
+                }
+                mixinsJSON.put(mixinJSON);
+            }
+            targetJSON.put("mixins", mixinsJSON);
+            targetsJSON.put(targetJSON);
+        }
+
+        JSONObject generatedJSON = new JSONObject();
+        this.generatedClasses.forEach(generatedJSON::put);
+
+        JSONObject auditTrail = new JSONObject();
+        auditTrail.put("targets", targetsJSON);
+        auditTrail.put("generated", generatedJSON);
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, auditTrail.toString(2).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,6 +3,7 @@ package de.geolykt.starloader.launcher.service;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -11,6 +12,8 @@ import java.util.ListIterator;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassReader;
@@ -23,7 +26,6 @@ import org.spongepowered.asm.mixin.MixinEnvironment.Phase;
 import org.spongepowered.asm.service.IClassBytecodeProvider;
 import org.spongepowered.asm.service.IClassProvider;
 import org.spongepowered.asm.service.IClassTracker;
-import org.spongepowered.asm.service.IMixinAuditTrail;
 import org.spongepowered.asm.service.IMixinInternal;
 import org.spongepowered.asm.service.ITransformerProvider;
 import org.spongepowered.asm.service.MixinServiceAbstract;
@@ -31,6 +33,7 @@ import org.spongepowered.asm.util.IConsumer;
 
 import net.minestom.server.extras.selfmodification.MinestomRootClassLoader;
 
+import de.geolykt.starloader.transformers.RawClassData;
 import de.geolykt.starloader.util.JavaInterop;
 
 public class SLMixinService extends MixinServiceAbstract {
@@ -38,10 +41,28 @@ public class SLMixinService extends MixinServiceAbstract {
     private static final MinestomRootClassLoader CLASSLOADER = MinestomRootClassLoader.getInstance();
 
     private static SLMixinService instance;
+
+    private static byte @Nullable[] readAllBytes(@Nullable InputStream is) throws IOException {
+        if (is == null) {
+            return null;
+        }
+        try {
+            return JavaInterop.readAllBytes(is);
+        } finally {
+            is.close();
+        }
+    }
+
     public static SLMixinService getInstance() {
         return SLMixinService.instance;
     }
 
+    @Nullable
+    private final MixinAuditTrail auditTrail = MixinAuditTrail.ENABLED ? new MixinAuditTrail() : null;
+
+    @NotNull
+    private final ClassNodeCache classNodeCache = new ClassNodeCache();
+
     private final IClassBytecodeProvider bytecodeProvider = new IClassBytecodeProvider() {
         @Override
         public ClassNode getClassNode(String name) throws ClassNotFoundException, IOException {
@@ -55,49 +76,50 @@ public class SLMixinService extends MixinServiceAbstract {
 
         @Override
         public ClassNode getClassNode(String name, boolean runTransformers, int readerFlags) throws ClassNotFoundException, IOException {
-            List<Exception> caughtExceptions = new ArrayList<>();
+            // Transformers are never run, which is why runTransformers is not part of the key
+            ClassNode cached = SLMixinService.this.classNodeCache.get(name, readerFlags);
+            if (cached != null) {
+                return cached;
+            }
+
+            String path = name.replace('.', '/') + ".class";
 
+            // Each source signals a miss by returning null, only a source that fails to read an existing class throws
             @SuppressWarnings("unchecked")
-            Callable<@NotNull ClassReader>[] suppliers = new Callable[4];
+            Callable<byte @Nullable[]>[] sources = new Callable[3];
 
             int i = 0;
             int systemClassLoaderIndex;
             if (JavaInterop.isJava9() || SLMixinService.CLASSLOADER.isProtected(name)) {
                 systemClassLoaderIndex = i++;
             } else {
-                systemClassLoaderIndex = suppliers.length - 1;
+                systemClassLoaderIndex = sources.length - 1;
             }
 
-            suppliers[systemClassLoaderIndex] = () -> {
+            sources[systemClassLoaderIndex] = () -> {
                 ClassLoader cl = JavaInterop.getPlatformClassLoader();
-                InputStream is;
-                if (cl == null) {
-                   is = ClassLoader.getSystemResourceAsStream(name.replace('.', '/') + ".class");
-                } else {
-                    is = cl.getResourceAsStream(name.replace('.', '/') + ".class");
-                }
-                return new ClassReader(is);
-            };
-
-            suppliers[i++] = () -> {
-                return new ClassReader(SLMixinService.CLASSLOADER.loadClassBytes(name, false).getBytes());
+                return SLMixinService.readAllBytes(cl == null ? ClassLoader.getSystemResourceAsStream(path) : cl.getResourceAsStream(path));
             };
 
-            suppliers[i++] = () -> {
-                return new ClassReader(SLMixinService.CLASSLOADER.loadBytesWithChildren(name, false));
+            sources[i++] = () -> {
+                // The root classloader followed by it's children, or only the classloader providing the class as per the resource index
+                RawClassData data = SLMixinService.CLASSLOADER.readResourceWithChildren(path);
+                return data == null ? null : data.getBytes();
             };
 
-            suppliers[i++] = () -> {
-                return new ClassReader(SLMixinService.CLASSLOADER.getResourceAsStream(name.replace('.', '/') + ".class"));
+            sources[i++] = () -> {
+                return SLMixinService.readAllBytes(SLMixinService.CLASSLOADER.getResourceAsStream(path));
             };
 
-            for (Callable<@NotNull ClassReader> supplier : suppliers) {
+            List<Exception> caughtExceptions = new ArrayList<>();
+            for (Callable<byte @Nullable[]> source : sources) {
                 try {
-                    @SuppressWarnings("null")
-                    ClassReader reader = supplier.call();
-                    ClassNode node = new ClassNode();
-                    reader.accept(node, readerFlags);
-                    return node;
+                    byte[] bytes = source.call();
+                    if (bytes != null) {
+                        ClassNode node = new ClassNode();
+                        new ClassReader(bytes).accept(node, readerFlags);
+                        return SLMixinService.this.classNodeCache.put(name, readerFlags, node);
+                    }
                 } catch (Exception e) {
                     caughtExceptions.add(e);
                 }
@@ -125,6 +147,24 @@ public class SLMixinService extends MixinServiceAbstract {
         }
     };
 
+    private final IClassTracker classTracker = new IClassTracker() {
+        @Override
+        public String getClassRestrictions(String className) {
+            // Protected classes are loaded by the parent classloader without being transformed
+            return SLMixinService.CLASSLOADER.isProtected(className.replace('/', '.')) ? "PACKAGE_CLASSLOADER_EXCLUSION,PACKAGE_TRANSFORMER_EXCLUSION" : "";
+        }
+
+        @Override
+        public boolean isClassLoaded(String className) {
+            return SLMixinService.CLASSLOADER.isClassDefined(className.replace('/', '.'));
+        }
+
+        @Override
+        public void registerInvalidClass(String className) {
+            SLMixinService.CLASSLOADER.registerInvalidClass(className.replace('/', '.'));
+        }
+    };
+
     private final IClassProvider classprovider = new IClassProvider() {
 
         @Override
@@ -169,14 +209,52 @@ public class SLMixinService extends MixinServiceAbstract {
 
     private IConsumer<Phase> wiredPhaseConsumer;
 
+    /**
+     * Evicts all {@link ClassNode ClassNodes} cached by the bytecode provider of this service.
+     * Called once the {@link Phase#DEFAULT default phase} was entered and whenever an extension is unloaded,
+     * as the classes of the extension may change when the extension is loaded again.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @AvailableSince("4.0.0-a20261018")
+    public void clearClassNodeCache() {
+        this.classNodeCache.clear();
+    }
+
     @Override
     protected ILogger createLogger(String name) {
         return new SLMixinLogger(Objects.requireNonNull(name, "logger may not have a null name"));
     }
 
+    /**
+     * Writes the mixin audit trail to a file once the JVM shuts down, as the {@link Phase#DEFAULT default phase}
+     * lasts until then. Does nothing if the audit trail is not enabled via the <code>org.stianloader.sll.mixinAuditTrail</code>
+     * system property.
+     *
+     * @param file The file to write the audit trail to
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @AvailableSince("4.0.0-a20261018")
+    public void exportAuditTrailOnShutdown(@NotNull Path file) {
+        MixinAuditTrail auditTrail = this.auditTrail;
+        if (auditTrail == null) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                auditTrail.write(file);
+            } catch (IOException e) {
+                LoggerFactory.getLogger(SLMixinService.class).warn("Unable to write the mixin audit trail.", e);
+            }
+        }, "SLL-MixinAuditTrailWriter"));
+    }
+
     @Override
-    public IMixinAuditTrail getAuditTrail() {
-        return null; // unsupported
+    @Nullable
+    public MixinAuditTrail getAuditTrail() {
+        return this.auditTrail;
     }
 
     @Override
@@ -191,7 +269,7 @@ public class SLMixinService extends MixinServiceAbstract {
 
     @Override
     public IClassTracker getClassTracker() {
-        return null; // unsupported
+        return this.classTracker;
     }
 
     @Nullable
@@ -231,6 +309,9 @@ public class SLMixinService extends MixinServiceAbstract {
     @Override
     public void init() {
         SLMixinService.instance = this;
+        SLMixinService.CLASSLOADER.registerStatisticsCounter("classNodeCacheHits", this.classNodeCache::getHits);
+        SLMixinService.CLASSLOADER.registerStatisticsCounter("classNodeCacheMisses", this.classNodeCache::getMisses);
+        SLMixinService.CLASSLOADER.registerStatisticsCounter("classNodeCacheEvictions", this.classNodeCache::getEvictions);
         super.init();
     }
 
@@ -185,6 +185,7 @@ public final class DiscoveredExtension {
             extension.name = json.optString("name", null);
             extension.accessWidener = json.optString("accessWidener", null);
             extension.mixinConfig = json.optString("mixinConfig", null);
+            extension.preloadList = json.optString("preloadList", null);
             extension.reversibleAccessSetter = json.optString("reversibleAccessSetter", null);
             extension.entrypoint = json.optString("entrypoint", null);
             extension.version = json.optString("version", null);
@@ -325,6 +326,9 @@ public final class DiscoveredExtension {
         if (extension.mixinConfig == null) {
             extension.mixinConfig = "";
         }
+        if (extension.preloadList == null) {
+            extension.preloadList = "";
+        }
         if (extension.accessWidener == null) {
             extension.accessWidener = "";
         } else {
@@ -364,6 +368,7 @@ public final class DiscoveredExtension {
     private transient LoadStatus loadStatus = LoadStatus.LOAD_SUCCESS;
     private String mixinConfig;
     private String name;
+    private String preloadList;
     private String reversibleAccessSetter;
 
     @NotNull
@@ -433,6 +438,21 @@ public final class DiscoveredExtension {
         return this.name;
     }
 
+    /**
+     * Obtains the preload list of this extension. The preload list is a text file that contains the binary names of
+     * classes that should be transformed on background threads ahead of demand, one name per line. Lines starting with
+     * <code>#</code> are ignored. Returns an empty string if not set.
+     *
+     * @return The path to the preload list relative to the {@link #files} of this extension.
+     * @since 4.0.0-a20261018
+     */
+    @SuppressWarnings("null")
+    @NotNull
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public String getPreloadList() {
+        return this.preloadList;
+    }
+
     /**
      * Obtains the reversible access setter file required by this extension.
      * Returns an empty string if not set.
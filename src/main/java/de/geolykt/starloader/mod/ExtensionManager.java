@@ -14,10 +14,12 @@ import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -55,9 +57,14 @@ import org.stianloader.picoresolve.repo.MavenRepository;
 import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
 import org.stianloader.picoresolve.version.MavenVersion;
 
+import net.minestom.server.extras.selfmodification.ClassBake;
+import net.minestom.server.extras.selfmodification.ClassPreloader;
 import net.minestom.server.extras.selfmodification.MinestomExtensionClassLoader;
 import net.minestom.server.extras.selfmodification.MinestomRootClassLoader;
+import net.minestom.server.extras.selfmodification.TransformedClassCache;
 
+import de.geolykt.starloader.launcher.service.MixinAuditTrail;
+import de.geolykt.starloader.launcher.service.SLMixinService;
 import de.geolykt.starloader.mod.DiscoveredExtension.ExternalDependencies;
 import de.geolykt.starloader.mod.DiscoveredExtension.ExternalDependencyArtifact;
 import de.geolykt.starloader.mod.DiscoveredExtension.ExternalRepository;
@@ -65,6 +72,8 @@ import de.geolykt.starloader.mod.DiscoveredExtension.LoadStatus;
 import de.geolykt.starloader.mod.Extension.ExtensionDescription;
 import de.geolykt.starloader.transformers.ASMTransformer;
 import de.geolykt.starloader.transformers.ReversibleAccessSetterTransformer;
+import de.geolykt.starloader.transformers.TransformerTargets;
+import de.geolykt.starloader.util.InputFingerprint;
 import de.geolykt.starloader.util.JavaInterop;
 import de.geolykt.starloader.util.MirroringURIMavenRepository;
 
@@ -88,6 +97,14 @@ public class ExtensionManager {
     @AvailableSince("4.0.0-a20240601")
     private static final boolean MIRROR_MAVEN_REQUESTS = Boolean.getBoolean("org.stianloader.sll.log.MIRROR_MAVEN_REQUESTS");
 
+    /**
+     * Whether to persistently cache transformed classes across launches. See {@link TransformedClassCache}.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    private static final boolean TRANSFORMED_CLASS_CACHE = Boolean.getBoolean("org.stianloader.sll.transformedClassCache");
+
     private final Map<String, MinestomExtensionClassLoader> extensionClassloaders = new HashMap<>();
     @NotNull
     private final List<Extension> extensionList = new CopyOnWriteArrayList<>();
@@ -135,8 +152,17 @@ public class ExtensionManager {
             }
         }
 
-        this.setupAccessWideners(discoveredExtensions);
-        this.setupCodeModifiers(discoveredExtensions);
+        ClassBake bake = MinestomRootClassLoader.getInstance().getClassBake();
+        boolean baked = bake != null && !bake.isRecording();
+        // Access wideners, mixins and code modifiers are already applied on baked classes, but still need to be applied on
+        // the classes the bake does not know about. A complete bake knows about all classes, and mixin is not bootstrapped then.
+        if (!baked || !bake.isComplete()) {
+            this.setupAccessWideners(discoveredExtensions);
+            this.setupCodeModifiers(discoveredExtensions);
+        }
+        if (ClassPreloader.ENABLED && !baked) {
+            this.queuePreloadLists(discoveredExtensions);
+        }
 
         // remove invalid extensions
         discoveredExtensions.removeIf(ext -> ext.getLoadStatus() != DiscoveredExtension.LoadStatus.LOAD_SUCCESS);
@@ -502,6 +528,33 @@ public class ExtensionManager {
         return this.extensions.get(name.toLowerCase());
     }
 
+    private void queuePreloadLists(@NotNull List<DiscoveredExtension> extensions) {
+        for (DiscoveredExtension extension : extensions) {
+            if (extension.getLoadStatus() != LoadStatus.LOAD_SUCCESS || extension.getPreloadList().isEmpty()) {
+                continue;
+            }
+
+            URL entry = extension.loader.findResource(extension.getPreloadList());
+            if (entry == null) {
+                LOGGER.warn("Unable to find the preload list of extension {}!", extension.getName());
+                continue;
+            }
+            List<@NotNull String> names = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(entry.openStream(), StandardCharsets.UTF_8))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    line = line.trim();
+                    if (!line.isEmpty() && line.charAt(0) != '#') {
+                        names.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read the preload list of extension {}!", extension.getName(), e);
+                continue;
+            }
+            MinestomRootClassLoader.getInstance().getClassPreloader().addClassNames(names);
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private void setupAccessWideners(List<DiscoveredExtension> extensionsToLoad) {
         for (DiscoveredExtension extension : extensionsToLoad) {
@@ -597,6 +650,10 @@ public class ExtensionManager {
                 if (!extension.getMixinConfig().isEmpty()) {
                     final String mixinConfigFile = extension.getMixinConfig();
                     Mixins.addConfiguration(mixinConfigFile);
+                    MixinAuditTrail auditTrail = SLMixinService.getInstance().getAuditTrail();
+                    if (auditTrail != null) {
+                        auditTrail.registerConfigOwner(mixinConfigFile, extension.getName());
+                    }
                     LOGGER.info("Found mixin in extension {}: {}", extension.getName(), mixinConfigFile);
                 }
             } catch (Exception e) {
@@ -611,6 +668,68 @@ public class ExtensionManager {
         LOGGER.info("Done loading code modifiers.");
     }
 
+    /**
+     * Opens the persistent cache of transformed classes if it was enabled via the <code>org.stianloader.sll.transformedClassCache</code>
+     * system property. The cache is keyed by a fingerprint of the SLL version, the registered transformers, the URLs of the
+     * root classloader (which includes the game) and all files of the loaded extensions (including their external dependencies).
+     * Any change in these inputs results in a different fingerprint, which discards previously cached classes.
+     *
+     * <p>Extensions may register transformers while they are initialised, which is why this method should only be called
+     * once all extensions were initialised. Classes that were transformed before the cache was opened are not cached.
+     *
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @AvailableSince("4.0.0-a20261018")
+    public void openTransformedClassCache() {
+        if (!ExtensionManager.TRANSFORMED_CLASS_CACHE) {
+            return;
+        }
+        ClassBake bake = MinestomRootClassLoader.getInstance().getClassBake();
+        if (bake != null && !bake.isRecording()) {
+            return;
+        }
+        List<DiscoveredExtension> extensions = new ArrayList<>();
+        for (Extension extension : this.extensionList) {
+            extensions.add(extension.getDescription().getOrigin());
+        }
+        this.openTransformedClassCache(extensions);
+    }
+
+    private void openTransformedClassCache(@NotNull List<DiscoveredExtension> extensions) {
+        MinestomRootClassLoader root = MinestomRootClassLoader.getInstance();
+        try {
+            InputFingerprint fingerprint = new InputFingerprint();
+            Package launcherPackage = ExtensionManager.class.getPackage();
+            fingerprint.addString(launcherPackage == null ? null : launcherPackage.getImplementationVersion());
+            CodeSource launcherSource = ExtensionManager.class.getProtectionDomain().getCodeSource();
+            fingerprint.addURL(launcherSource == null ? null : launcherSource.getLocation());
+            for (ASMTransformer transformer : root.getASMTransformers()) {
+                fingerprint.addString(transformer.getClass().getName());
+            }
+            // Frames are computed and mixins are applied based on the supertypes of a class, which may be provided by the game
+            for (URL url : root.getURLs()) {
+                fingerprint.addURL(url);
+            }
+            for (DiscoveredExtension extension : extensions) {
+                fingerprint.addString(extension.getName());
+                fingerprint.addString(extension.getVersion());
+                fingerprint.addString(extension.getMixinConfig());
+                fingerprint.addString(extension.getAccessWidener());
+                fingerprint.addString(extension.getReversibleAccessSetter());
+                MinestomExtensionClassLoader loader = extension.loader;
+                for (URL url : loader == null ? extension.files.toArray(new URL[0]) : loader.getURLs()) {
+                    fingerprint.addURL(url);
+                }
+            }
+            TransformedClassCache cache = TransformedClassCache.open(this.mavenCacheDir.resolveSibling(".sll-transform-cache"), fingerprint.finish());
+            root.setTransformedClassCache(cache);
+            ExtensionManager.LOGGER.info("Caching transformed classes in {}", cache.getDirectory());
+        } catch (IOException e) {
+            ExtensionManager.LOGGER.warn("Unable to open the transformed class cache; classes will not be cached.", e);
+        }
+    }
+
     @SuppressWarnings({ "resource", "deprecation" })
     private void unload(Extension ext) {
         ext.preTerminate();
@@ -649,6 +768,11 @@ public class ExtensionManager {
             }
             ext.getDescription().getOrigin().loader = null;
         }
+
+        SLMixinService mixinService = SLMixinService.getInstance();
+        if (mixinService != null) {
+            mixinService.clearClassNodeCache();
+        }
     }
 
     public void reload(String extensionName) {
@@ -707,11 +831,37 @@ public class ExtensionManager {
             }
         }
 
+        // The transformer pool is about to change, which the transformed class cache cannot account for
+        MinestomRootClassLoader.getInstance().setTransformedClassCache(null);
+
         this.setupAccessWideners(extensionsToLoad);
         // setup code modifiers for these extensions
-        // TODO: it is possible that the new modifiers cannot be applied (because the targeted classes are already loaded), should we issue a warning?
-        // If so, how?
+        // It is possible that the new modifiers cannot be applied because the targeted classes are already loaded.
+        // Mixin warns about such targets by itself through the class tracker of the mixin service, other transformers are checked here.
+        MinestomRootClassLoader root = MinestomRootClassLoader.getInstance();
+        Set<ASMTransformer> previousTransformers = Collections.newSetFromMap(new IdentityHashMap<>());
+        previousTransformers.addAll(root.getASMTransformers());
         this.setupCodeModifiers(extensionsToLoad);
+        for (ASMTransformer transformer : root.getASMTransformers()) {
+            if (previousTransformers.contains(transformer)) {
+                continue;
+            }
+            TransformerTargets targets;
+            try {
+                targets = transformer.getDeclaredTargets();
+            } catch (RuntimeException e) {
+                // Reported by the classloader once it indexes the transformer
+                continue;
+            }
+            if (targets == null || targets.isAll()) {
+                continue;
+            }
+            for (String target : targets.getClasses()) {
+                if (root.isClassDefined(target.replace('/', '.'))) {
+                    ExtensionManager.LOGGER.warn("Transformer {} targets class {}, which was already loaded. The transformer will not apply to it.", transformer.getClass().getName(), target);
+                }
+            }
+        }
 
         List<Extension> newExtensions = new LinkedList<>();
         for (DiscoveredExtension toReload : extensionsToLoad) {
@@ -760,6 +910,12 @@ public class ExtensionManager {
      * Shutdowns all the extensions by unloading them.
      */
     public void shutdown() {
+        TransformedClassCache cache = MinestomRootClassLoader.getInstance().getTransformedClassCache();
+        if (cache != null) {
+            long hits = cache.getHits();
+            long lookups = hits + cache.getMisses();
+            ExtensionManager.LOGGER.info("Transformed class cache: {} hits out of {} lookups ({}%), {} entries written.", hits, lookups, lookups == 0 ? 0 : hits * 100 / lookups, cache.getStores());
+        }
         this.extensionList.forEach(this::unload);
     }
 }
@@ -4,7 +4,9 @@ import org.objectweb.asm.tree.ClassNode;
 
 import de.geolykt.starloader.launcher.ASMMixinTransformer;
 
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Type;
 
 /**
@@ -42,6 +44,25 @@ public abstract class ASMTransformer implements Comparable<ASMTransformer> {
         return this.getPriority() - o.getPriority();
     }
 
+    /**
+     * Obtains the classes this transformer may be interested in, allowing the classloader to index transformers
+     * by their targets instead of calling {@link #isValidTarget(String)} on every transformer for every class.
+     * Classes outside of the declared targets will not be passed to {@link #isValidTarget(String)},
+     * while {@link #isValidTarget(String)} is still called for classes within the declared targets.
+     *
+     * <p>This method is called whenever the transformer pool of the classloader changes, so the
+     * declared targets must not grow while the transformer is registered. Transformers whose targets
+     * are not known ahead of time should return <code>null</code>, which is also the default.
+     *
+     * @return The declared targets, or <code>null</code> if {@link #isValidTarget(String)} should be polled for every class.
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @AvailableSince("4.0.0-a20261018")
+    public TransformerTargets getDeclaredTargets() {
+        return null;
+    }
+
     /**
      * Obtains the priority of this transformer.
      * The priority is used to note when a transformer should be applied in relation to other transformers.
@@ -92,4 +113,28 @@ public abstract class ASMTransformer implements Comparable<ASMTransformer> {
     public boolean isValid() {
         return true;
     }
+
+    /**
+     * Obtains whether {@link #accept(ClassNode)} (or {@link org.stianloader.sll.transform.CodeTransformer#transformClass(ClassNode, java.net.URI)}
+     * for transformers implementing that interface) may be invoked by several threads at once for different classes.
+     *
+     * <p>Transformers that are not thread-safe are serialized by the classloader: At most one thread at a time
+     * will run a non-thread-safe transformer. Thread-safe transformers as well as the parsing and writing of classes
+     * are run concurrently for classes that are loaded in parallel. The same applies to {@link #isValidTarget(String)}
+     * (and it's {@link org.stianloader.sll.transform.CodeTransformer} counterpart): It is only called concurrently
+     * if this method returns <code>true</code>.
+     *
+     * <p>Non-thread-safe transformers may load further classes while transforming a class. Thread-safe transformers
+     * must not do so, as classes are transformed while other threads requesting the same class wait for it.
+     *
+     * <p>As existing transformers were written with the assumption that SLL transforms a single class at a time,
+     * this method returns <code>false</code> by default.
+     *
+     * @return True if the transformer tolerates concurrent invocation, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    public boolean isThreadSafe() {
+        return false;
+    }
 }
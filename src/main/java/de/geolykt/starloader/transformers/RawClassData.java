@@ -1,14 +1,37 @@
 package de.geolykt.starloader.transformers;
 
 import java.net.URL;
+import java.nio.ByteBuffer;
 
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class RawClassData {
 
-    private final byte @NotNull[] bytes;
+    /**
+     * Obtains the remaining bytes of a buffer as an array, without modifying the position of the buffer.
+     * If the buffer is backed by an array that consists of exactly the remaining bytes, the backing array is returned.
+     *
+     * @param buffer The buffer
+     * @return An array containing the remaining bytes of the buffer
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    public static byte @NotNull[] toByteArray(@NotNull ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Nullable
+    private final ByteBuffer buffer;
+
+    private byte @Nullable[] bytes;
 
     @Nullable
     private final URL source;
@@ -16,11 +39,58 @@ public class RawClassData {
     public RawClassData(@Nullable URL source, byte @NotNull[] bytes) {
         this.source = source;
         this.bytes = bytes;
+        this.buffer = null;
+    }
+
+    /**
+     * Creates a {@link RawClassData} instance that is backed by a buffer. The buffer is not copied,
+     * which means that the remaining bytes of the buffer must not be modified afterwards.
+     *
+     * @param source The URL the class was loaded from, if known
+     * @param buffer The buffer whose remaining bytes are the bytecode of the class
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    public RawClassData(@Nullable URL source, @NotNull ByteBuffer buffer) {
+        this.source = source;
+        this.buffer = buffer.slice();
+    }
+
+    /**
+     * Obtains the bytecode of the class as a buffer. If the instance was created with a buffer, a view
+     * of that buffer is returned without copying the bytecode.
+     *
+     * @return A buffer whose remaining bytes are the bytecode of the class. Must not be modified.
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @AvailableSince("4.0.0-a20261018")
+    @Contract(pure = true, value = "-> new")
+    public ByteBuffer getBuffer() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            return buffer.duplicate();
+        }
+        byte[] bytes = this.bytes;
+        assert bytes != null;
+        return ByteBuffer.wrap(bytes);
     }
 
+    /**
+     * Obtains the bytecode of the class as an array. If the instance was created with a buffer that is not
+     * backed by an array of matching size, the buffer is copied into a new array the first time this method is called.
+     *
+     * @return The bytecode of the class. Must not be modified.
+     */
     @Contract(pure = true)
     public byte @NotNull[] getBytes() {
-        return this.bytes;
+        byte[] bytes = this.bytes;
+        if (bytes == null) {
+            ByteBuffer buffer = this.buffer;
+            assert buffer != null;
+            this.bytes = bytes = RawClassData.toByteArray(buffer);
+        }
+        return bytes;
     }
 
     @Nullable
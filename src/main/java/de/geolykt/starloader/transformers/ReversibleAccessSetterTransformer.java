@@ -1,8 +1,13 @@
 package de.geolykt.starloader.transformers;
 
+import java.net.URI;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.LoggerFactory;
+import org.stianloader.sll.transform.ChangeReport;
+import org.stianloader.sll.transform.ReportingCodeTransformer;
 
 import de.geolykt.starloader.ras.ReversibleAccessSetterContext;
 import de.geolykt.starloader.ras.ReversibleAccessSetterContext.RASTransformFailure;
@@ -13,7 +18,7 @@ import de.geolykt.starloader.ras.ReversibleAccessSetterContext.RASTransformScope
  *
  * @since 4.0.0
  */
-public class ReversibleAccessSetterTransformer extends ASMTransformer {
+public class ReversibleAccessSetterTransformer extends ASMTransformer implements ReportingCodeTransformer {
 
     @NotNull
     private final ReversibleAccessSetterContext mainContext = new ReversibleAccessSetterContext(RASTransformScope.RUNTIME, false);
@@ -31,6 +36,12 @@ public class ReversibleAccessSetterTransformer extends ASMTransformer {
         return true;
     }
 
+    @Override
+    public boolean transformClass(@NotNull ClassNode node, @Nullable URI codeSourceURI, @NotNull ChangeReport report) {
+        // Access setters only ever modify access flags, which never requires the code of a method to be regenerated
+        return this.accept(node);
+    }
+
     @NotNull
     public ReversibleAccessSetterContext getMainContext() {
         return this.mainContext;
@@ -1,11 +1,13 @@
 package de.geolykt.starloader.transformers;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AbstractInsnNode;
@@ -18,6 +20,8 @@ import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.stianloader.sll.transform.ChangeReport;
+import org.stianloader.sll.transform.ReportingCodeTransformer;
 
 /**
  * Simple transformer that inlines the proper values from the starplane-annotations string source, without remapping them
@@ -28,7 +32,7 @@ import org.slf4j.LoggerFactory;
  *
  * @since 4.0.0
  */
-public class StarplaneAnnotationsInlineTransformer extends ASMTransformer {
+public class StarplaneAnnotationsInlineTransformer extends ASMTransformer implements ReportingCodeTransformer {
 
     private static class MemberTriple {
         @NotNull
@@ -64,6 +68,11 @@ public class StarplaneAnnotationsInlineTransformer extends ASMTransformer {
 
     @Override
     public boolean accept(@NotNull ClassNode node) {
+        return this.transformClass(node, null, new ChangeReport());
+    }
+
+    @Override
+    public boolean transformClass(@NotNull ClassNode node, @Nullable URI codeSourceURI, @NotNull ChangeReport report) {
         Map<MemberTriple, MemberTriple> memberMapRequests = new HashMap<>();
         Map<MemberTriple, String> memberMapFormat = new HashMap<>();
         Map<MemberTriple, String> classMapRequests = new HashMap<>();
@@ -234,6 +243,7 @@ public class StarplaneAnnotationsInlineTransformer extends ASMTransformer {
                     }
                 }
                 transformed = true;
+                report.markMethodChanged(method);
                 method.instructions.set(insn, new LdcInsnNode(replacementLdc));
                 insn = nextInsn;
             }
@@ -251,4 +261,9 @@ public class StarplaneAnnotationsInlineTransformer extends ASMTransformer {
     public int getPriority() {
         return -10_010;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true; // No state is shared between invocations
+    }
 }
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.CheckReturnValue;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 /**
@@ -33,6 +34,20 @@ public interface TransformableClassloader {
     @AvailableSince(value = "4.0.0-a20231223")
     Collection<@NotNull ASMTransformer> getASMTransformers();
 
+    /**
+     * Obtains a snapshot of the statistics collected by this classloader about the transformation of classes,
+     * including per-transformer hit rates and timings as well as the time spent parsing, writing and defining classes.
+     *
+     * @return The current statistics, or <code>null</code> if the classloader does not collect statistics.
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @Contract(pure = true, value = "-> new")
+    @AvailableSince("4.0.0-a20261018")
+    default TransformationStatistics getTransformationStatistics() {
+        return null;
+    }
+
     /**
      * Obtains whether the current thread should be logging classloading-related
      * exceptions for this specific classloader. This may relate to class transformation
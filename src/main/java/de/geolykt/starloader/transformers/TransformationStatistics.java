@@ -0,0 +1,146 @@
+package de.geolykt.starloader.transformers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * An immutable snapshot of the statistics collected by a {@link TransformableClassloader}, as returned by
+ * {@link TransformableClassloader#getTransformationStatistics()}. All durations are cumulative across all threads.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+public final class TransformationStatistics {
+
+    @NotNull
+    @Unmodifiable
+    private final Map<String, Long> counters;
+    private final long defineCount;
+    private final long defineNanos;
+    private final long parseCount;
+    private final long parseNanos;
+    @NotNull
+    @Unmodifiable
+    private final List<@NotNull TransformerStatistics> transformers;
+    private final long writeCount;
+    private final long writeNanos;
+
+    public TransformationStatistics(@NotNull List<@NotNull TransformerStatistics> transformers, long parseCount, long parseNanos,
+            long writeCount, long writeNanos, long defineCount, long defineNanos, @NotNull Map<String, Long> counters) {
+        this.transformers = Collections.unmodifiableList(transformers);
+        this.parseCount = parseCount;
+        this.parseNanos = parseNanos;
+        this.writeCount = writeCount;
+        this.writeNanos = writeNanos;
+        this.defineCount = defineCount;
+        this.defineNanos = defineNanos;
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Obtains additional implementation-specific counters, such as cache hit rates or lock contention.
+     * The keys of the returned map are not part of the API contract and may change at any time.
+     *
+     * @return An unmodifiable map of counter names to their values
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Unmodifiable
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public Map<String, Long> getCounters() {
+        return this.counters;
+    }
+
+    /**
+     * Obtains the amount of classes defined by the classloader.
+     *
+     * @return The amount of invocations of {@link ClassLoader#defineClass(String, byte[], int, int)}.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getDefineCount() {
+        return this.defineCount;
+    }
+
+    /**
+     * Obtains the time spent within {@link ClassLoader#defineClass(String, byte[], int, int)}.
+     *
+     * @return The time spent defining classes, in nanoseconds.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getDefineNanos() {
+        return this.defineNanos;
+    }
+
+    /**
+     * Obtains the amount of classes parsed into a tree representation for transformation.
+     *
+     * @return The amount of parsed classes
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getParseCount() {
+        return this.parseCount;
+    }
+
+    /**
+     * Obtains the time spent parsing classes into a tree representation for transformation.
+     *
+     * @return The time spent parsing classes, in nanoseconds.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getParseNanos() {
+        return this.parseNanos;
+    }
+
+    /**
+     * Obtains the statistics of all transformers that were registered at any point in time, in no particular order.
+     *
+     * @return An unmodifiable list of per-transformer statistics
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Unmodifiable
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public List<@NotNull TransformerStatistics> getTransformers() {
+        return this.transformers;
+    }
+
+    /**
+     * Obtains the amount of transformed classes that were written back to bytecode.
+     *
+     * @return The amount of written classes
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getWriteCount() {
+        return this.writeCount;
+    }
+
+    /**
+     * Obtains the time spent writing transformed classes back to bytecode, including frame computation.
+     *
+     * @return The time spent writing classes, in nanoseconds.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getWriteNanos() {
+        return this.writeNanos;
+    }
+}
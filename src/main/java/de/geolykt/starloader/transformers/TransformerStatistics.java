@@ -0,0 +1,130 @@
+package de.geolykt.starloader.transformers;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * An immutable snapshot of the statistics a {@link TransformableClassloader} collected about a single {@link ASMTransformer}.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+public final class TransformerStatistics {
+
+    private final long acceptedClasses;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long modifiedClasses;
+    private final long transformNanos;
+    @NotNull
+    private final String transformerName;
+    private final long validTargetCalls;
+
+    public TransformerStatistics(@NotNull String transformerName, long validTargetCalls, long acceptedClasses, long modifiedClasses, long transformNanos, long bytesIn, long bytesOut) {
+        this.transformerName = transformerName;
+        this.validTargetCalls = validTargetCalls;
+        this.acceptedClasses = acceptedClasses;
+        this.modifiedClasses = modifiedClasses;
+        this.transformNanos = transformNanos;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+    }
+
+    /**
+     * Obtains the amount of classes for which {@link ASMTransformer#isValidTarget(String)} returned <code>true</code>,
+     * that is the amount of classes that were passed to the transformer.
+     *
+     * @return The amount of accepted classes
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getAcceptedClasses() {
+        return this.acceptedClasses;
+    }
+
+    /**
+     * Obtains the cumulative size of the untransformed bytecode of all classes modified by the transformer.
+     *
+     * @return The amount of bytes before transformation
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getBytesIn() {
+        return this.bytesIn;
+    }
+
+    /**
+     * Obtains the cumulative size of the transformed bytecode of all classes modified by the transformer.
+     * As several transformers may modify the same class, the difference to {@link #getBytesIn()} is
+     * not necessarily caused by this transformer alone.
+     *
+     * @return The amount of bytes after transformation
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getBytesOut() {
+        return this.bytesOut;
+    }
+
+    /**
+     * Obtains the amount of classes for which the transformer reported that it modified the {@link ClassNode}.
+     *
+     * @return The amount of modified classes
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getModifiedClasses() {
+        return this.modifiedClasses;
+    }
+
+    /**
+     * Obtains the cumulative time spent within {@link ASMTransformer#accept(ClassNode)} or
+     * {@link org.stianloader.sll.transform.CodeTransformer#transformClass(ClassNode, java.net.URI)}.
+     *
+     * @return The time spent transforming classes, in nanoseconds.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getTransformNanos() {
+        return this.transformNanos;
+    }
+
+    /**
+     * Obtains the fully qualified name of the class of the transformer.
+     *
+     * @return The name of the transformer
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public String getTransformerName() {
+        return this.transformerName;
+    }
+
+    /**
+     * Obtains how often the transformer was asked whether a class is a valid target.
+     *
+     * @return The amount of calls to {@link ASMTransformer#isValidTarget(String)}
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public long getValidTargetCalls() {
+        return this.validTargetCalls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d targets checked, %d accepted, %d modified, %.2f ms, %d -> %d bytes",
+                this.transformerName, this.validTargetCalls, this.acceptedClasses, this.modifiedClasses,
+                this.transformNanos / 1_000_000D, this.bytesIn, this.bytesOut);
+    }
+}
@@ -0,0 +1,161 @@
+package de.geolykt.starloader.transformers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+import org.objectweb.asm.Type;
+
+/**
+ * An immutable description of the classes an {@link ASMTransformer} may be interested in, as returned by
+ * {@link ASMTransformer#getDeclaredTargets()}. Classes that are not described by the targets of a transformer
+ * are never passed to the transformer, not even to {@link ASMTransformer#isValidTarget(String)}.
+ *
+ * <p>Targets are either a set of exact class names, a set of packages (which includes all subpackages) or a combination
+ * of both, or alternatively all classes. All names use the internal format as per {@link Type#getInternalName()}.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+public final class TransformerTargets {
+
+    @NotNull
+    private static final TransformerTargets ALL = new TransformerTargets(true, Collections.emptySet(), Collections.emptySet());
+
+    /**
+     * Obtains a {@link TransformerTargets} instance that targets every class.
+     * Transformers declaring these targets still have {@link ASMTransformer#isValidTarget(String)} called
+     * for every class, but the class loader knows that it cannot skip the transformer.
+     *
+     * @return Targets matching every class
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public static TransformerTargets all() {
+        return TransformerTargets.ALL;
+    }
+
+    /**
+     * Creates a {@link TransformerTargets} instance that matches the given classes and all classes within the given packages.
+     * Packages are written in their internal form, with or without a trailing slash - that is both <code>com/example/</code>
+     * and <code>com/example</code> match <code>com/example/Main</code> and <code>com/example/impl/Util</code>, but not
+     * <code>com/examples/Main</code>. An empty package name matches all classes in the default package and all subpackages,
+     * which is equivalent to {@link #all()}.
+     *
+     * @param classes The internal names of the targeted classes
+     * @param packages The internal names of the targeted packages
+     * @return The created targets
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(pure = true, value = "_, _ -> new")
+    @AvailableSince("4.0.0-a20261018")
+    public static TransformerTargets of(@NotNull Collection<@NotNull String> classes, @NotNull Collection<@NotNull String> packages) {
+        Set<String> packagePrefixes = new LinkedHashSet<>();
+        for (String packageName : packages) {
+            if (packageName.isEmpty()) {
+                return TransformerTargets.ALL;
+            }
+            packagePrefixes.add(packageName.charAt(packageName.length() - 1) == '/' ? packageName : packageName + '/');
+        }
+        return new TransformerTargets(false, Collections.unmodifiableSet(new LinkedHashSet<>(classes)), Collections.unmodifiableSet(packagePrefixes));
+    }
+
+    /**
+     * Creates a {@link TransformerTargets} instance that only matches the given classes.
+     *
+     * @param classes The internal names of the targeted classes
+     * @return The created targets
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(pure = true, value = "_ -> new")
+    @AvailableSince("4.0.0-a20261018")
+    public static TransformerTargets ofClasses(@NotNull String @NotNull... classes) {
+        Set<String> set = new LinkedHashSet<>();
+        Collections.addAll(set, classes);
+        return new TransformerTargets(false, Collections.unmodifiableSet(set), Collections.emptySet());
+    }
+
+    private final boolean all;
+    @NotNull
+    @Unmodifiable
+    private final Set<String> classes;
+    @NotNull
+    @Unmodifiable
+    private final Set<String> packagePrefixes;
+
+    private TransformerTargets(boolean all, @NotNull @Unmodifiable Set<String> classes, @NotNull @Unmodifiable Set<String> packagePrefixes) {
+        this.all = all;
+        this.classes = classes;
+        this.packagePrefixes = packagePrefixes;
+    }
+
+    /**
+     * Obtains the internal names of the explicitly targeted classes.
+     *
+     * @return An unmodifiable set of internal class names
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Unmodifiable
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public Set<String> getClasses() {
+        return this.classes;
+    }
+
+    /**
+     * Obtains the targeted packages in their internal form, always ending with a slash (e.g. <code>com/example/</code>).
+     *
+     * @return An unmodifiable set of package name prefixes
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Unmodifiable
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public Set<String> getPackagePrefixes() {
+        return this.packagePrefixes;
+    }
+
+    /**
+     * Checks whether all classes are targeted.
+     *
+     * @return True if every class is a potential target
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public boolean isAll() {
+        return this.all;
+    }
+
+    /**
+     * Checks whether the class with the given internal name is described by these targets.
+     *
+     * @param internalName The internal name of the class
+     * @return True if the class is targeted
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public boolean matches(@NotNull String internalName) {
+        if (this.all || this.classes.contains(internalName)) {
+            return true;
+        }
+        for (String prefix : this.packagePrefixes) {
+            if (internalName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
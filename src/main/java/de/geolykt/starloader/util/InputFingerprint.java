@@ -0,0 +1,155 @@
+package de.geolykt.starloader.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Accumulates the inputs of the class transformation pipeline (jars, directories, configuration
+ * strings) into a single hash. Two fingerprints are equal if and only if the inputs were equal
+ * and were added in the same order.
+ *
+ * <p>Regular files are hashed by their contents, directories are hashed by the relative path, size and
+ * modification time of the files within them. URLs that do not point to the local filesystem
+ * are only hashed by their string representation.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class InputFingerprint {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @NotNull
+    public static final String toHexString(byte @NotNull[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = InputFingerprint.HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            out[i * 2 + 1] = InputFingerprint.HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(out);
+    }
+
+    @NotNull
+    public static final MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every Java platform", e);
+        }
+    }
+
+    @NotNull
+    private final MessageDigest digest = InputFingerprint.newDigest();
+
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    public InputFingerprint addPath(@NotNull Path path) throws IOException {
+        return this.addPath(path, (file) -> true);
+    }
+
+    /**
+     * Adds a file or directory to the fingerprint. If the path is a directory, only files
+     * within the directory matching the given filter are considered.
+     *
+     * @param path The file or directory to add
+     * @param filter The filter to apply on the files within the directory
+     * @return The current instance, for chaining
+     * @throws IOException If the path could not be read
+     */
+    @NotNull
+    @Contract(mutates = "this", value = "_, _ -> this")
+    public InputFingerprint addPath(@NotNull Path path, @NotNull Predicate<@NotNull Path> filter) throws IOException {
+        this.addString(path.toAbsolutePath().toString());
+        if (Files.isDirectory(path)) {
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(path)) {
+                files = stream.filter(Files::isRegularFile).filter(filter).collect(Collectors.toCollection(ArrayList::new));
+            }
+            Collections.sort(files);
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                this.addString(path.relativize(file).toString());
+                this.addLong(attributes.size());
+                this.addLong(attributes.lastModifiedTime().toMillis());
+            }
+        } else if (Files.isRegularFile(path)) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = Files.newInputStream(path)) {
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    this.digest.update(buffer, 0, read);
+                }
+            }
+        } else {
+            this.addString("<absent>");
+        }
+        return this;
+    }
+
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    public InputFingerprint addLong(long value) {
+        for (int i = 56; i >= 0; i -= 8) {
+            this.digest.update((byte) (value >>> i));
+        }
+        return this;
+    }
+
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    public InputFingerprint addString(@Nullable String string) {
+        if (string == null) {
+            this.addLong(-1L);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            this.addLong(bytes.length);
+            this.digest.update(bytes);
+        }
+        return this;
+    }
+
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    public InputFingerprint addURL(@Nullable URL url) throws IOException {
+        if (url == null || !url.getProtocol().equals("file")) {
+            return this.addString(String.valueOf(url));
+        }
+        try {
+            return this.addPath(Paths.get(url.toURI()));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return this.addString(url.toExternalForm());
+        }
+    }
+
+    /**
+     * Completes the fingerprint. The fingerprint instance should no longer be used afterwards.
+     *
+     * @return A lowercase hexadecimal representation of the fingerprint.
+     */
+    @NotNull
+    @Contract(mutates = "this")
+    public String finish() {
+        return InputFingerprint.toHexString(this.digest.digest());
+    }
+}
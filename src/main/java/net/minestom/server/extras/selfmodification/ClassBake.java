@@ -0,0 +1,551 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.objectweb.asm.ClassReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.geolykt.starloader.launcher.Utils;
+import de.geolykt.starloader.util.JavaInterop;
+
+/**
+ * A set of classes that were transformed ahead of time ("baked"). A bake is either recording, in which case the output
+ * of the transformation pipeline is captured so that it can be {@link #write(Path, String) written} to disk, or it is
+ * {@link #load(Path, String) loaded} from disk, in which case the recorded output is used instead of running the
+ * transformation pipeline.
+ *
+ * <p>A bake consists of a jar containing all classes whose bytecode was changed by the transformation pipeline as well as
+ * the classes generated at runtime by mixin or MixinExtras, and a manifest storing the fingerprint of the inputs used to create
+ * the bake and the names of all classes that went through the pipeline. The fingerprint covers the contents of all inputs,
+ * which is why the freshness of the bake is only checked once when it is loaded instead of for every class. Classes unknown
+ * to the bake go through the regular transformation pipeline.
+ *
+ * <p>A bake is {@link #isComplete() complete} if the baked bytecode does not reference any class that is unknown to the bake,
+ * the class path of the hierarchy or the platform. A complete bake makes the transformation pipeline redundant, meaning that
+ * mixin does not need to be bootstrapped at all.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class ClassBake {
+
+    private static final class BakedClass {
+        /**
+         * Whether the class has no class file, as it is generated at runtime.
+         */
+        private final boolean generated;
+        private final boolean transformed;
+        private final byte @Nullable[] transformedBytecode;
+
+        private BakedClass(boolean transformed, boolean generated, byte @Nullable[] transformedBytecode) {
+            this.transformed = transformed;
+            this.generated = generated;
+            this.transformedBytecode = transformedBytecode;
+        }
+    }
+
+    @NotNull
+    private static final String CLASSES_JAR = "classes.jar";
+    private static final int CONSTANT_CLASS = 7;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassBake.class);
+    @NotNull
+    private static final String MANIFEST = "manifest.json";
+
+    private static void collectClassNames(@NotNull URL url, @NotNull Set<String> out) throws IOException {
+        Path path;
+        try {
+            path = Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            ClassBake.LOGGER.warn("Unable to bake classes of non-file URL {}", url);
+            return;
+        }
+
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.walk(path)) {
+                stream.filter(Files::isRegularFile).forEach((file) -> {
+                    String name = path.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                    ClassBake.collectClassName(name, out);
+                });
+            }
+        } else if (Files.isRegularFile(path)) {
+            try (ZipFile zip = new ZipFile(path.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ClassBake.collectClassName(entries.nextElement().getName(), out);
+                }
+            }
+        }
+    }
+
+    private static void collectClassName(@NotNull String path, @NotNull Set<String> out) {
+        if (path.endsWith(".class") && !path.startsWith("META-INF/") && !path.endsWith("module-info.class") && !path.endsWith("package-info.class")) {
+            out.add(path.substring(0, path.length() - 6));
+        }
+    }
+
+    /**
+     * Loads a bake from disk, provided that it was created with the same inputs.
+     *
+     * @param directory The directory the bake was {@link #write(Path, String) written} to
+     * @param fingerprint The fingerprint of the current inputs
+     * @return The loaded bake, or <code>null</code> if there is no bake or if the bake was created from different inputs.
+     * @throws IOException If the bake could not be read
+     */
+    @Nullable
+    public static ClassBake load(@NotNull Path directory, @NotNull String fingerprint) throws IOException {
+        Path manifestPath = directory.resolve(ClassBake.MANIFEST);
+        if (Files.notExists(manifestPath)) {
+            return null;
+        }
+
+        JSONObject manifest = new JSONObject(new String(Files.readAllBytes(manifestPath), StandardCharsets.UTF_8));
+        if (!fingerprint.equals(manifest.optString("fingerprint"))) {
+            ClassBake.LOGGER.info("The baked classes in {} are outdated; running the regular transformation pipeline instead.", directory);
+            return null;
+        }
+
+        ClassBake bake = new ClassBake(new ZipFile(directory.resolve(ClassBake.CLASSES_JAR).toFile()), manifest.optBoolean("complete"));
+        JSONObject classes = manifest.getJSONObject("classes");
+        for (String name : classes.keySet()) {
+            JSONObject entry = classes.getJSONObject(name);
+            bake.classes.put(name, new BakedClass(entry.getBoolean("transformed"), entry.optBoolean("generated"), null));
+        }
+        JSONArray failed = manifest.optJSONArray("failed");
+        if (failed != null) {
+            for (int i = 0; i < failed.length(); i++) {
+                bake.failedClasses.add(failed.getString(i));
+            }
+        }
+        return bake;
+    }
+
+    /**
+     * Creates a new bake that records the output of the transformation pipeline.
+     *
+     * @return The recording bake
+     */
+    @NotNull
+    @Contract(pure = true, value = "-> new")
+    public static ClassBake record() {
+        return new ClassBake(null, false);
+    }
+
+    @NotNull
+    private final Map<String, BakedClass> classes = new ConcurrentHashMap<>();
+    /**
+     * Whether the bake is complete. For recording bakes, this is only known once the dependents of generated classes were discarded.
+     */
+    private volatile boolean complete;
+    /**
+     * The internal names of the classes that could not be transformed.
+     */
+    @NotNull
+    private final Set<String> failedClasses = ConcurrentHashMap.newKeySet();
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+    @Nullable
+    private final ZipFile jar;
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+
+    private ClassBake(@Nullable ZipFile jar, boolean complete) {
+        this.jar = jar;
+        this.complete = complete;
+    }
+
+    /**
+     * Pushes all classes on the classpath of the root classloader and all of it's children that have not been
+     * transformed yet through the transformation pipeline, thus recording them.
+     *
+     * @param root The root classloader, which must use this bake.
+     * @return The amount of classes that could not be transformed
+     * @throws IOException If the classpath could not be read
+     */
+    public int bakeRemaining(@NotNull MinestomRootClassLoader root) throws IOException {
+        if (!this.isRecording() || root.getClassBake() != this) {
+            throw new IllegalStateException("The bake must be recording and must be used by the root classloader.");
+        }
+
+        List<URL> urls = new ArrayList<>();
+        List<HierarchyClassLoader> loaders = new ArrayList<>();
+        loaders.add(root);
+        synchronized (HierarchyClassLoader.class) {
+            for (int i = 0; i < loaders.size(); i++) {
+                HierarchyClassLoader loader = loaders.get(i);
+                for (URL url : loader.getURLs()) {
+                    urls.add(url);
+                }
+                for (MinestomExtensionClassLoader child : loader.getChildArray()) {
+                    if (!loaders.contains(child)) {
+                        loaders.add(child);
+                    }
+                }
+            }
+        }
+
+        Set<String> names = new TreeSet<>();
+        for (URL url : urls) {
+            ClassBake.collectClassNames(Objects.requireNonNull(url), names);
+        }
+
+        int failures = 0;
+        boolean logFailures = root.isThreadLoggingClassloadingFailures();
+        root.setThreadLoggingClassloadingFailures(false);
+        try {
+            for (String name : names) {
+                if (this.classes.containsKey(name)) {
+                    continue;
+                }
+                String qualifiedName = name.replace('/', '.');
+                URL url = root.getResourceAsURLWithChildren(name + ".class");
+                if (url == null) {
+                    continue;
+                }
+                try (InputStream in = url.openStream()) {
+                    root.transformBytes(JavaInterop.readAllBytes(in), qualifiedName, Utils.toCodeSourceURI(url, qualifiedName));
+                } catch (Throwable t) {
+                    if (t instanceof ThreadDeath) {
+                        throw (ThreadDeath) t;
+                    } else if (t instanceof OutOfMemoryError) {
+                        throw (OutOfMemoryError) t;
+                    }
+                    // Mixin classes for example cannot be transformed
+                    ClassBake.LOGGER.debug("Unable to bake class {}", qualifiedName, t);
+                    this.failedClasses.add(name);
+                    failures++;
+                }
+            }
+        } finally {
+            root.setThreadLoggingClassloadingFailures(logFailures);
+        }
+        return failures;
+    }
+
+    /**
+     * Removes the classes whose transformed bytecode references classes that are neither known to this bake nor present
+     * on the class path of the hierarchy or the platform. Such classes are usually defined at runtime by mixin or MixinExtras
+     * while the referencing class is transformed (for example the implementations of MixinExtras' local references),
+     * and would thus never be defined when the baked bytecode is used. The removed classes go through the regular transformation
+     * pipeline instead, generating the referenced classes along the way.
+     *
+     * @param root The root classloader, which must use this bake.
+     * @return The amount of removed classes
+     */
+    public int discardDependentsOfGeneratedClasses(@NotNull MinestomRootClassLoader root) {
+        return this.discardDependentsOfGeneratedClasses(root, (name) -> null);
+    }
+
+    /**
+     * Records the classes generated at runtime that are referenced by the transformed bytecode of any class, and removes
+     * the classes whose transformed bytecode references classes that are neither known to this bake, nor present on the class
+     * path of the hierarchy or the platform, nor can be generated. The removed classes go through the regular transformation
+     * pipeline instead. Should no class need to be removed, the bake is {@link #isComplete() complete}.
+     *
+     * @param root The root classloader, which must use this bake.
+     * @param generator Obtains the bytecode of a class generated at runtime by it's internal name, or <code>null</code>
+     * if the class was not generated.
+     * @return The amount of removed classes
+     * @see #discardDependentsOfGeneratedClasses(MinestomRootClassLoader)
+     */
+    public int discardDependentsOfGeneratedClasses(@NotNull MinestomRootClassLoader root, @NotNull Function<@NotNull String, byte @Nullable[]> generator) {
+        if (!this.isRecording() || root.getClassBake() != this) {
+            throw new IllegalStateException("The bake must be recording and must be used by the root classloader.");
+        }
+
+        Map<String, Boolean> present = new HashMap<>();
+        ClassLoader parent = root.getParent();
+        Deque<String> pending = new ArrayDeque<>(this.classes.keySet());
+        int discarded = 0;
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            BakedClass baked = this.classes.get(name);
+            byte[] bytecode = baked == null ? null : baked.transformedBytecode;
+            if (bytecode == null) {
+                continue;
+            }
+            ClassReader reader = new ClassReader(bytecode);
+            char[] buffer = new char[reader.getMaxStringLength()];
+            for (int i = 1; i < reader.getItemCount(); i++) {
+                int offset = reader.getItem(i);
+                // CONSTANT_Class entries store the index of their name at the offset of the item
+                if (offset == 0 || reader.readByte(offset - 1) != ClassBake.CONSTANT_CLASS) {
+                    continue;
+                }
+                String referenced = reader.readUTF8(offset, buffer);
+                if (referenced == null || referenced.startsWith("[") || this.classes.containsKey(referenced)) {
+                    continue;
+                }
+                boolean exists = present.computeIfAbsent(referenced, (referencedName) -> {
+                    String path = referencedName + ".class";
+                    if (root.getResourceAsURLWithChildren(path) != null) {
+                        return true;
+                    }
+                    if ((parent == null ? ClassLoader.getSystemResource(path) : parent.getResource(path)) != null) {
+                        return true;
+                    }
+                    byte[] generated = generator.apply(referencedName);
+                    if (generated == null) {
+                        return false;
+                    }
+                    this.classes.put(referencedName, new BakedClass(true, true, generated));
+                    // Generated classes may reference further generated classes
+                    pending.add(referencedName);
+                    return true;
+                });
+                if (!exists) {
+                    ClassBake.LOGGER.debug("Not baking class {} as it references the unknown class {}", name, referenced);
+                    this.classes.remove(name);
+                    discarded++;
+                    break;
+                }
+            }
+        }
+        this.complete = discarded == 0;
+        return discarded;
+    }
+
+    /**
+     * Obtains the internal names of the classes that could not be transformed when the bake was recorded.
+     * Mixin classes for example cannot be transformed and must never be loaded.
+     *
+     * @return The names of the classes that could not be transformed
+     */
+    @NotNull
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<String> getFailedClasses() {
+        return Collections.unmodifiableSet(this.failedClasses);
+    }
+
+    /**
+     * Obtains how often a class was served from this bake.
+     *
+     * @return The amount of classes served from the bake
+     */
+    @Contract(pure = true)
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Obtains how often a class had to go through the regular transformation pipeline as it was not known to this bake.
+     *
+     * @return The amount of classes not served from the bake
+     */
+    @Contract(pure = true)
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Checks whether the baked bytecode only references classes that are known to this bake or present on the class path
+     * of the hierarchy or the platform, including the classes generated at runtime. The transformation pipeline (including
+     * mixin, access wideners and code modifiers) does not need to be set up when using a complete bake.
+     *
+     * @return True if the bake is complete, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * Checks whether a class was generated at runtime while the bake was recorded, meaning that it has no class file.
+     *
+     * @param internalName The internal name of the class
+     * @return True if the class is a baked generated class, false otherwise
+     */
+    @Contract(pure = true)
+    boolean isGenerated(@NotNull String internalName) {
+        BakedClass baked = this.classes.get(internalName);
+        return baked != null && baked.generated;
+    }
+
+    /**
+     * Checks whether this bake records the output of the transformation pipeline.
+     * If <code>false</code>, the bake was loaded from disk and replaces the transformation pipeline.
+     *
+     * @return True if the bake is recording, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isRecording() {
+        return this.jar == null;
+    }
+
+    /**
+     * Obtains the baked bytecode of a class. The untransformed bytecode is not verified, as the freshness of the bake
+     * as a whole was verified when it was loaded.
+     *
+     * @param internalName The internal name of the class
+     * @param untransformedBytecode The untransformed bytecode of the class
+     * @return The baked bytecode, which is the untransformed bytecode itself if it was not changed by the transformation pipeline,
+     * or <code>null</code> if the class needs to go through the regular transformation pipeline.
+     */
+    byte @Nullable[] lookup(@NotNull String internalName, byte @NotNull[] untransformedBytecode) {
+        BakedClass baked = this.classes.get(internalName);
+        if (baked == null || this.jar == null) {
+            this.misses.increment();
+            return null;
+        }
+        if (!baked.transformed || baked.generated) {
+            this.hits.increment();
+            return untransformedBytecode;
+        }
+        return this.read(internalName);
+    }
+
+    /**
+     * Obtains the baked bytecode of a class that is held in a buffer. See {@link #lookup(String, byte[])}.
+     *
+     * @param internalName The internal name of the class
+     * @param untransformedBytecode The buffer whose remaining bytes are the untransformed bytecode
+     * @return A buffer whose remaining bytes are the baked bytecode, which is the passed buffer itself if the bytecode
+     * was not changed by the transformation pipeline, or <code>null</code> if the class needs to go through the regular
+     * transformation pipeline.
+     */
+    @Nullable
+    ByteBuffer lookup(@NotNull String internalName, @NotNull ByteBuffer untransformedBytecode) {
+        BakedClass baked = this.classes.get(internalName);
+        if (baked == null || this.jar == null) {
+            this.misses.increment();
+            return null;
+        }
+        if (!baked.transformed || baked.generated) {
+            this.hits.increment();
+            return untransformedBytecode;
+        }
+        byte[] bytecode = this.read(internalName);
+        return bytecode == null ? null : ByteBuffer.wrap(bytecode);
+    }
+
+    /**
+     * Obtains the bytecode of a class that was generated at runtime while the bake was recorded.
+     *
+     * @param internalName The internal name of the class
+     * @return The bytecode, or <code>null</code> if the class is not a baked generated class.
+     */
+    byte @Nullable[] lookupGenerated(@NotNull String internalName) {
+        if (!this.isGenerated(internalName)) {
+            return null;
+        }
+        return this.read(internalName);
+    }
+
+    private byte @Nullable[] read(@NotNull String internalName) {
+        ZipFile jar = this.jar;
+        ZipEntry entry = jar == null ? null : jar.getEntry(internalName + ".class");
+        if (entry != null) {
+            try (InputStream in = jar.getInputStream(entry)) {
+                byte[] bytecode = JavaInterop.readAllBytes(in);
+                this.hits.increment();
+                return bytecode;
+            } catch (IOException e) {
+                ClassBake.LOGGER.warn("Unable to read baked class {}", internalName, e);
+            }
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Records the output of the transformation pipeline for a given class.
+     * Only the first output recorded for any class is retained.
+     *
+     * @param internalName The internal name of the class
+     * @param untransformedBytecode The input of the transformation pipeline
+     * @param transformedBytecode The output of the transformation pipeline
+     */
+    void record(@NotNull String internalName, byte @NotNull[] untransformedBytecode, byte @NotNull[] transformedBytecode) {
+        boolean transformed = untransformedBytecode != transformedBytecode;
+        this.classes.putIfAbsent(internalName, new BakedClass(transformed, false, transformed ? transformedBytecode : null));
+    }
+
+    /**
+     * Writes the recorded classes to disk, replacing any bake that was previously written to the directory.
+     *
+     * @param directory The directory to write the bake to
+     * @param fingerprint The fingerprint of the inputs used to create the bake
+     * @throws IOException If the bake could not be written
+     */
+    public void write(@NotNull Path directory, @NotNull String fingerprint) throws IOException {
+        if (!this.isRecording()) {
+            throw new IllegalStateException("Only recording bakes can be written.");
+        }
+
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(ClassBake.MANIFEST));
+        Map<String, BakedClass> classes = new TreeMap<>(this.classes);
+        JSONObject classesJSON = new JSONObject();
+        Path jarTemp = Files.createTempFile(directory, ClassBake.CLASSES_JAR, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(jarTemp); ZipOutputStream zipOut = new ZipOutputStream(out)) {
+                for (Map.Entry<String, BakedClass> entry : classes.entrySet()) {
+                    BakedClass baked = entry.getValue();
+                    JSONObject classJSON = new JSONObject();
+                    classJSON.put("transformed", baked.transformed);
+                    if (baked.generated) {
+                        classJSON.put("generated", true);
+                    }
+                    classesJSON.put(entry.getKey(), classJSON);
+                    byte[] bytecode = baked.transformedBytecode;
+                    if (bytecode != null) {
+                        zipOut.putNextEntry(new ZipEntry(entry.getKey() + ".class"));
+                        zipOut.write(bytecode);
+                        zipOut.closeEntry();
+                    }
+                }
+            }
+            Files.move(jarTemp, directory.resolve(ClassBake.CLASSES_JAR), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(jarTemp);
+        }
+
+        JSONObject manifest = new JSONObject();
+        manifest.put("fingerprint", fingerprint);
+        manifest.put("created", System.currentTimeMillis());
+        manifest.put("classes", classesJSON);
+        manifest.put("complete", this.complete);
+        manifest.put("failed", new JSONArray(new TreeSet<>(this.failedClasses)));
+        // The manifest is written last, so an interrupted bake will never be considered up to date
+        Files.write(directory.resolve(ClassBake.MANIFEST), manifest.toString(2).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,219 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import de.geolykt.starloader.util.JavaInterop;
+
+/**
+ * Index of the supertypes of classes, built purely from the headers of class files. Used to answer
+ * {@link ClassWriter#getCommonSuperClass(String, String)} queries without loading classes,
+ * as loading classes while computing frames would reenter the transformation pipeline and may
+ * cause class initialization side-effects.
+ *
+ * <p>Headers are read from the root classloader and its children, and should that fail, from the
+ * parent classloader (which includes the platform classes). Classes without a class file, such as classes
+ * generated by mixin at runtime, are looked up among the classes that were already defined by the root classloader
+ * or its children. Headers are read from untransformed bytecode,
+ * meaning that interfaces added by transformers are not known to the index. This is of no concern
+ * for frame computation as the verifier treats interfaces like {@link Object}.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class ClassHierarchyIndex {
+
+    private static final class ClassHeader {
+        private final int access;
+        @Nullable
+        private final String superName;
+        @NotNull
+        private final String @NotNull[] interfaces;
+
+        private ClassHeader(int access, @Nullable String superName, @NotNull String @NotNull[] interfaces) {
+            this.access = access;
+            this.superName = superName;
+            this.interfaces = interfaces;
+        }
+
+        private boolean isInterface() {
+            return (this.access & Opcodes.ACC_INTERFACE) != 0;
+        }
+    }
+
+    /**
+     * The headers and common super classes known at a given {@link HierarchyClassLoader#getHierarchyVersion() hierarchy version}.
+     * Once the hierarchy changes (for example because an extension was reloaded with a different class hierarchy),
+     * the state is discarded as a whole.
+     */
+    private static final class IndexState {
+        @NotNull
+        private final Map<String, String> commonSuperClasses = new ConcurrentHashMap<>();
+        @NotNull
+        private final Map<String, ClassHeader> headers = new ConcurrentHashMap<>();
+        private final int version;
+
+        private IndexState(int version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * The maximum amount of cached common super classes. Type pairs are plentiful while headers are bounded by the amount
+     * of classes, which is why only the pairs are bounded.
+     */
+    private static final int MAX_COMMON_SUPER_CLASSES = 16384;
+
+    @NotNull
+    private final MinestomRootClassLoader loader;
+    @NotNull
+    private volatile IndexState state = new IndexState(HierarchyClassLoader.getHierarchyVersion());
+
+    ClassHierarchyIndex(@NotNull MinestomRootClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Obtains the internal name of the most specific common super class of two types, following
+     * the semantics of {@link ClassWriter#getCommonSuperClass(String, String)}.
+     *
+     * @param type1 The internal name of the first type
+     * @param type2 The internal name of the second type
+     * @return The internal name of the common super class
+     * @throws TypeNotPresentException If neither the class file nor the defined class of either type or any of its supertypes can be found
+     */
+    @NotNull
+    String getCommonSuperClass(@NotNull String type1, @NotNull String type2) {
+        IndexState state = this.getState();
+        String key = type1 + ';' + type2;
+        String common = state.commonSuperClasses.get(key);
+        if (common == null) {
+            common = this.computeCommonSuperClass(state, type1, type2);
+            if (state.commonSuperClasses.size() >= ClassHierarchyIndex.MAX_COMMON_SUPER_CLASSES) {
+                state.commonSuperClasses.clear();
+            }
+            state.commonSuperClasses.put(key, common);
+        }
+        return common;
+    }
+
+    @NotNull
+    private String computeCommonSuperClass(@NotNull IndexState state, @NotNull String type1, @NotNull String type2) {
+        if (this.isAssignableFrom(state, type1, type2)) {
+            return type1;
+        } else if (this.isAssignableFrom(state, type2, type1)) {
+            return type2;
+        }
+
+        ClassHeader header1 = this.getHeader(state, type1);
+        if (header1.isInterface() || this.getHeader(state, type2).isInterface()) {
+            return "java/lang/Object";
+        }
+
+        String common = type1;
+        do {
+            common = this.getHeader(state, common).superName;
+            if (common == null) {
+                return "java/lang/Object";
+            }
+        } while (!this.isAssignableFrom(state, common, type2));
+        return common;
+    }
+
+    @NotNull
+    private ClassHeader getHeader(@NotNull IndexState state, @NotNull String internalName) {
+        ClassHeader header = state.headers.get(internalName);
+        if (header != null) {
+            return header;
+        }
+
+        String path = internalName + ".class";
+        try {
+            InputStream in = this.loader.getResourceAsStreamWithChildren(path);
+            if (in == null) {
+                ClassLoader parent = this.loader.getParent();
+                in = parent == null ? ClassLoader.getSystemResourceAsStream(path) : parent.getResourceAsStream(path);
+            }
+            if (in == null) {
+                header = this.getDefinedHeader(internalName);
+            } else {
+                ClassReader reader;
+                try {
+                    reader = new ClassReader(JavaInterop.readAllBytes(in));
+                } finally {
+                    in.close();
+                }
+                header = new ClassHeader(reader.getAccess(), reader.getSuperName(), reader.getInterfaces());
+            }
+        } catch (IOException e) {
+            throw new TypeNotPresentException(internalName.replace('/', '.'), e);
+        }
+
+        // Misses are not recorded as the class may be provided by a classloader added at a later point in time
+        state.headers.put(internalName, header);
+        return header;
+    }
+
+    /**
+     * Obtains the header of a class that has no class file, but was already defined by the root classloader or any of it's children.
+     */
+    @NotNull
+    private ClassHeader getDefinedHeader(@NotNull String internalName) {
+        Class<?> defined = this.loader.findClassInHierarchy(internalName.replace('/', '.'));
+        if (defined == null) {
+            throw new TypeNotPresentException(internalName.replace('/', '.'), null);
+        }
+        Class<?> superclass = defined.getSuperclass();
+        Class<?>[] interfaces = defined.getInterfaces();
+        String[] interfaceNames = new String[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceNames[i] = Type.getInternalName(interfaces[i]);
+        }
+        return new ClassHeader(defined.isInterface() ? Opcodes.ACC_INTERFACE : 0, superclass == null ? null : Type.getInternalName(superclass), interfaceNames);
+    }
+
+    /**
+     * Obtains the state of the current hierarchy version, discarding the state of previous versions.
+     * A query that started with an outdated state completes with it, but does not pollute the current state.
+     */
+    @NotNull
+    private IndexState getState() {
+        int version = HierarchyClassLoader.getHierarchyVersion();
+        IndexState state = this.state;
+        if (state.version != version) {
+            state = new IndexState(version);
+            this.state = state;
+        }
+        return state;
+    }
+
+    /**
+     * Checks whether <code>subtype</code> is <code>supertype</code>, or extends or implements it directly or indirectly.
+     */
+    private boolean isAssignableFrom(@NotNull IndexState state, @NotNull String supertype, @NotNull String subtype) {
+        if (supertype.equals(subtype) || supertype.equals("java/lang/Object")) {
+            return true;
+        }
+        ClassHeader header = this.getHeader(state, subtype);
+        String superName = header.superName;
+        if (superName != null && this.isAssignableFrom(state, supertype, superName)) {
+            return true;
+        }
+        for (String itf : header.interfaces) {
+            if (this.isAssignableFrom(state, supertype, itf)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Records the order in which classes are defined by the root classloader and it's children, so that
+ * the classes can be {@link ClassPreloader preloaded} in the same order on the next launch.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class ClassLoadTrace {
+
+    /**
+     * Reads a trace previously written by {@link #write(Path)}.
+     *
+     * @param file The trace file
+     * @return The binary names of the traced classes, in definition order. Empty if the file does not exist.
+     * @throws IOException If the file could not be read
+     */
+    @NotNull
+    public static List<@NotNull String> read(@NotNull Path file) throws IOException {
+        List<String> names = new ArrayList<>();
+        if (Files.notExists(file)) {
+            return names;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                names.add(line);
+            }
+        }
+        return names;
+    }
+
+    @NotNull
+    private final Queue<String> definitionOrder = new ConcurrentLinkedQueue<>();
+    @NotNull
+    private final Set<String> definedClasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Records the definition of a class.
+     *
+     * @param name The binary name of the class
+     */
+    @Contract(mutates = "this")
+    void record(@NotNull String name) {
+        if (this.definedClasses.add(name)) {
+            this.definitionOrder.add(name);
+        }
+    }
+
+    /**
+     * Writes the names of all classes that were defined so far to a file, one name per line.
+     *
+     * @param file The file to write the trace to
+     * @throws IOException If the trace could not be written
+     */
+    public void write(@NotNull Path file) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Classes in the order they were defined by SLL. Used to preload classes on the next launch.");
+            writer.newLine();
+            for (String name : this.definitionOrder) {
+                writer.write(name);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lists the entries of class path URLs without opening the entries themselves. The listing is a snapshot:
+ * files that are added to a directory afterwards would not be known to the caches built from the listing,
+ * which is why URLs that are {@link #isMutable(URL) mutable} should not be listed for caching purposes.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class ClassPathEntries {
+
+    /**
+     * Checks whether the set of entries provided by a class path URL may change while the URL is in use. This is the case
+     * for directories (whose contents are for example changed by an IDE when recompiling classes during a debugging session)
+     * and for files that do not exist yet. Jars are presumed to not change while they are in use.
+     *
+     * @param url The class path URL, as passed to {@link java.net.URLClassLoader#addURL(URL)}
+     * @return True if the entries of the URL may change, false otherwise.
+     */
+    static boolean isMutable(@NotNull URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return false;
+        }
+        try {
+            Path path = Paths.get(url.toURI());
+            return Files.isDirectory(path) || Files.notExists(path);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Lists the paths of all files provided by a class path URL, as would be passed to {@link ClassLoader#getResource(String)}.
+     * Jars are listed by reading their central directory, directories are walked recursively.
+     *
+     * @param url The class path URL, as passed to {@link java.net.URLClassLoader#addURL(URL)}
+     * @return The paths of the files and directories, using '/' as the separator. Directories are listed both with and without
+     * a trailing slash. Empty if the URL does not point to an existing file.
+     * @throws IOException If the URL does not point to a local file or if the file could not be read
+     */
+    @NotNull
+    static List<@NotNull String> list(@NotNull URL url) throws IOException {
+        if (!"file".equals(url.getProtocol())) {
+            throw new IOException("Unsupported protocol: " + url.getProtocol());
+        }
+        Path path;
+        try {
+            path = Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Unable to convert URL " + url + " to a path", e);
+        }
+
+        List<String> entries = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            String separator = path.getFileSystem().getSeparator();
+            try (Stream<Path> files = Files.walk(path)) {
+                files.forEach((file) -> {
+                    if (!file.equals(path)) {
+                        String entry = path.relativize(file).toString().replace(separator, "/");
+                        entries.add(entry);
+                        if (Files.isDirectory(file)) {
+                            entries.add(entry + '/');
+                        }
+                    }
+                });
+            }
+        } else if (Files.exists(path)) {
+            try (ZipFile zip = new ZipFile(path.toFile())) {
+                Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+                while (zipEntries.hasMoreElements()) {
+                    String entry = zipEntries.nextElement().getName();
+                    entries.add(entry);
+                    if (entry.endsWith("/")) {
+                        // Directories within jars can be looked up with or without the trailing slash
+                        entries.add(entry.substring(0, entry.length() - 1));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private ClassPathEntries() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,382 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import de.geolykt.starloader.util.JavaInterop;
+
+/**
+ * Alternative to {@link java.net.URLClassLoader} for reading the entries of local jars and directories.
+ * Jars are memory-mapped once and their central directory is parsed into a compact offset table,
+ * so that reading an entry does not go through {@link java.net.JarURLConnection} and it's caches.
+ * Only used if the <code>org.stianloader.sll.mappedClassPath</code> system property is set to <code>true</code>.
+ *
+ * <p>The contents of entries are always copied out of the mapped jar, so that modifying a jar while it is in use
+ * (for example when an extension is updated or rebuilt) results in an {@link IOException} rather than a crash of the JVM.
+ * Storages are released when their classloader is closed, at which point the mapping is freed once the storage is garbage collected.
+ *
+ * <p>This means that the gains of this backend stem solely from skipping {@link java.net.JarURLConnection}: There is no lookup
+ * of the URL handler and the cached {@link java.util.jar.JarFile}, and no stream nor {@link Inflater} is allocated per entry,
+ * as inflaters and input buffers are kept per thread. The arrays that are returned are not pooled, as they are handed out to
+ * transformers and classloaders which retain them. Handing out buffers backed by the mapping would not spare a copy either, as
+ * the define path needs the bytecode as an array in order to parse it for the supertypes of the class.
+ *
+ * <p>Jars that cannot be represented faithfully (ZIP64 archives, encrypted entries and archives larger than 2 GiB)
+ * are rejected with an {@link IOException} when the storage is opened, in which case the classloader must fall back
+ * to {@link java.net.URLClassLoader#findResource(String)}. Multi-release jars are resolved against the version of the
+ * running JVM.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+abstract class ClassPathStorage {
+
+    private static final class DirectoryStorage extends ClassPathStorage {
+        @NotNull
+        private final Path directory;
+
+        private DirectoryStorage(@NotNull URL url, @NotNull Path directory) {
+            super(url);
+            this.directory = directory;
+        }
+
+        @Override
+        byte @Nullable[] read(@NotNull String path) throws IOException {
+            if (path.isEmpty() || path.charAt(0) == '/' || path.contains("..")) {
+                // Let the URLClassLoader deal with unusual paths
+                throw new IOException("Unsupported path: " + path);
+            }
+            Path file = this.directory.resolve(path);
+            try {
+                return Files.readAllBytes(file);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                // Directories are not entries that could be read. Only checked after the fact as reading a file is the common case
+                if (Files.isDirectory(file)) {
+                    return null;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        @NotNull
+        URL toURL(@NotNull String path) throws MalformedURLException {
+            return new URL(this.url, path);
+        }
+    }
+
+    private static final class MappedJarStorage extends ClassPathStorage {
+        private static final int CENTRAL_HEADER = 0x02014B50;
+        private static final int END_OF_CENTRAL_DIRECTORY = 0x06054B50;
+        private static final int LOCAL_HEADER = 0x04034B50;
+
+        private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+        private static final ThreadLocal<byte[]> INPUT_BUFFERS = ThreadLocal.withInitial(() -> new byte[8192]);
+        private static final int @NotNull[] NO_VERSIONS = new int[0];
+
+        private final int @NotNull[] compressedSizes;
+        @NotNull
+        private final Map<String, Integer> entries;
+        @NotNull
+        private final String jarURLPrefix;
+        private final int @NotNull[] localHeaderOffsets;
+        @NotNull
+        private final MappedByteBuffer mapped;
+        private final boolean @NotNull[] stored;
+        private final int @NotNull[] uncompressedSizes;
+
+        /**
+         * The versions of the multi-release jar that apply to the running JVM, in descending order.
+         * Empty if the jar is not a multi-release jar or if the JVM does not support multi-release jars.
+         */
+        private int @NotNull[] versions;
+
+        private MappedJarStorage(@NotNull URL url, @NotNull Path jar) throws IOException {
+            super(url);
+            this.jarURLPrefix = "jar:" + url.toExternalForm() + "!/";
+            try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Jar too large to be mapped: " + jar);
+                }
+                this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            ByteBuffer buffer = this.mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+            int eocd = -1;
+            for (int i = buffer.limit() - 22, min = Math.max(0, i - 0xFFFF); i >= min; i--) {
+                if (buffer.getInt(i) == MappedJarStorage.END_OF_CENTRAL_DIRECTORY) {
+                    eocd = i;
+                    break;
+                }
+            }
+            if (eocd == -1) {
+                throw new ZipException("End of central directory not found: " + jar);
+            }
+            int entryCount = Short.toUnsignedInt(buffer.getShort(eocd + 10));
+            long directoryOffset = Integer.toUnsignedLong(buffer.getInt(eocd + 16));
+            if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+                throw new ZipException("ZIP64 archives are not supported: " + jar);
+            }
+
+            this.entries = new HashMap<>(entryCount * 2);
+            this.compressedSizes = new int[entryCount];
+            this.uncompressedSizes = new int[entryCount];
+            this.localHeaderOffsets = new int[entryCount];
+            this.stored = new boolean[entryCount];
+            int position = (int) directoryOffset;
+            for (int i = 0; i < entryCount; i++) {
+                if (buffer.getInt(position) != MappedJarStorage.CENTRAL_HEADER) {
+                    throw new ZipException("Malformed central directory: " + jar);
+                }
+                int flags = Short.toUnsignedInt(buffer.getShort(position + 8));
+                int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+                long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+                long uncompressedSize = Integer.toUnsignedLong(buffer.getInt(position + 24));
+                int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+                int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+                int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+                long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+                if ((flags & 1) != 0) {
+                    throw new ZipException("Encrypted entries are not supported: " + jar);
+                } else if (method != 0 && method != 8) {
+                    throw new ZipException("Unsupported compression method " + method + ": " + jar);
+                } else if (compressedSize >= Integer.MAX_VALUE || uncompressedSize >= Integer.MAX_VALUE || localHeaderOffset >= Integer.MAX_VALUE) {
+                    throw new ZipException("ZIP64 archives are not supported: " + jar);
+                }
+                byte[] name = new byte[nameLength];
+                ByteBuffer nameBuffer = buffer.duplicate();
+                nameBuffer.position(position + 46);
+                nameBuffer.get(name);
+                this.entries.putIfAbsent(new String(name, StandardCharsets.UTF_8), i);
+                this.compressedSizes[i] = (int) compressedSize;
+                this.uncompressedSizes[i] = (int) uncompressedSize;
+                this.localHeaderOffsets[i] = (int) localHeaderOffset;
+                this.stored[i] = method == 0;
+                position += 46 + nameLength + extraLength + commentLength;
+            }
+
+            this.versions = MappedJarStorage.NO_VERSIONS;
+            byte[] manifest = this.read("META-INF/MANIFEST.MF");
+            if (JavaInterop.isJava9() && manifest != null && new String(manifest, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT).contains("multi-release: true")) {
+                this.versions = MappedJarStorage.getVersions(this.entries.keySet());
+            }
+        }
+
+        /**
+         * Obtains the versions of a multi-release jar that apply to the running JVM, in descending order.
+         */
+        private static int @NotNull[] getVersions(@NotNull Set<String> entries) {
+            int runtimeVersion;
+            String specificationVersion = System.getProperty("java.specification.version", "1.8");
+            try {
+                runtimeVersion = Integer.parseInt(specificationVersion.startsWith("1.") ? specificationVersion.substring(2) : specificationVersion);
+            } catch (NumberFormatException e) {
+                return MappedJarStorage.NO_VERSIONS;
+            }
+            Set<Integer> versions = new TreeSet<>(Collections.reverseOrder());
+            for (String entry : entries) {
+                if (entry.startsWith("META-INF/versions/")) {
+                    int versionEnd = entry.indexOf('/', "META-INF/versions/".length());
+                    if (versionEnd != -1) {
+                        try {
+                            int version = Integer.parseInt(entry.substring("META-INF/versions/".length(), versionEnd));
+                            if (version >= 9 && version <= runtimeVersion) {
+                                versions.add(version);
+                            }
+                        } catch (NumberFormatException e) {
+                            // Not a version directory
+                        }
+                    }
+                }
+            }
+            int[] sorted = new int[versions.size()];
+            int i = 0;
+            for (int version : versions) {
+                sorted[i++] = version;
+            }
+            return sorted;
+        }
+
+        @Nullable
+        private Integer getEntry(@NotNull String path) {
+            // Versioned entries take precedence over the unversioned entry, just like they do for a JarFile opened with the runtime version
+            for (int version : this.versions) {
+                Integer entry = this.entries.get("META-INF/versions/" + version + "/" + path);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            return this.entries.get(path);
+        }
+
+        private int getDataOffset(int entry) throws ZipException {
+            ByteBuffer buffer = this.mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            int header = this.localHeaderOffsets[entry];
+            if (buffer.getInt(header) != MappedJarStorage.LOCAL_HEADER) {
+                throw new ZipException("Malformed local header in " + this.url);
+            }
+            return header + 30 + Short.toUnsignedInt(buffer.getShort(header + 26)) + Short.toUnsignedInt(buffer.getShort(header + 28));
+        }
+
+        @Override
+        byte @Nullable[] read(@NotNull String path) throws IOException {
+            Integer entry = this.getEntry(path);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                return this.read(entry, path);
+            } catch (InternalError | IndexOutOfBoundsException | BufferUnderflowException e) {
+                // The JVM reports faulting accesses to a mapped file that was truncated after it was mapped as an InternalError
+                throw new IOException("Unable to read entry " + path + " of " + this.url + ", as the jar was likely modified while it was in use", e);
+            }
+        }
+
+        private byte @NotNull[] read(int i, @NotNull String path) throws IOException {
+            ByteBuffer data = this.mapped.duplicate();
+            data.position(this.getDataOffset(i));
+            byte[] out = new byte[this.uncompressedSizes[i]];
+            if (this.stored[i]) {
+                data.get(out);
+                return out;
+            }
+
+            int compressedSize = this.compressedSizes[i];
+            byte[] input = MappedJarStorage.INPUT_BUFFERS.get();
+            if (input.length <= compressedSize) {
+                input = new byte[Integer.highestOneBit(compressedSize) << 1];
+                MappedJarStorage.INPUT_BUFFERS.set(input);
+            }
+            data.get(input, 0, compressedSize);
+            // The inflater may require an additional dummy byte when not expecting a zlib header, see java.util.zip.ZipFile
+            input[compressedSize] = 0;
+
+            Inflater inflater = MappedJarStorage.INFLATERS.get();
+            inflater.reset();
+            inflater.setInput(input, 0, compressedSize + 1);
+            try {
+                int written = 0;
+                while (written < out.length) {
+                    int inflated = inflater.inflate(out, written, out.length - written);
+                    if (inflated == 0) {
+                        // Finished, needs a dictionary or more input than the entry consists of
+                        break;
+                    }
+                    written += inflated;
+                }
+                if (written != out.length) {
+                    throw new ZipException("Truncated entry " + path + " in " + this.url);
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid compressed data for entry " + path + " in " + this.url + ": " + e.getMessage());
+            }
+            return out;
+        }
+
+        @Override
+        @NotNull
+        URL toURL(@NotNull String path) throws MalformedURLException {
+            return new URL(this.jarURLPrefix + path);
+        }
+    }
+
+    /**
+     * Whether class path storages should be used instead of {@link java.net.URLClassLoader#findResource(String)}.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("org.stianloader.sll.mappedClassPath");
+
+    /**
+     * Opens the storage of a class path URL.
+     *
+     * @param url The class path URL, as passed to {@link java.net.URLClassLoader#addURL(URL)}
+     * @return The opened storage
+     * @throws IOException If the URL is not supported by any storage, in which case the URLClassLoader must be used instead.
+     */
+    @NotNull
+    static ClassPathStorage open(@NotNull URL url) throws IOException {
+        if (!"file".equals(url.getProtocol())) {
+            throw new IOException("Unsupported protocol: " + url.getProtocol());
+        }
+        Path path;
+        try {
+            path = Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Unable to convert URL " + url + " to a path", e);
+        }
+        if (Files.isDirectory(path)) {
+            return new DirectoryStorage(url, path);
+        }
+        return new MappedJarStorage(url, path);
+    }
+
+    @NotNull
+    protected final URL url;
+
+    private ClassPathStorage(@NotNull URL url) {
+        this.url = url;
+    }
+
+    /**
+     * Reads an entry of this storage.
+     *
+     * @param path The path of the entry
+     * @return A newly allocated array containing the contents of the entry, or <code>null</code> if the entry does not exist
+     * or if it is a directory.
+     * @throws IOException If the entry could not be read
+     */
+    abstract byte @Nullable[] read(@NotNull String path) throws IOException;
+
+    /**
+     * Reads an entry of this storage into a buffer. The buffer is never backed by a memory-mapped jar, as the buffer may be passed
+     * to native code (such as {@link ClassLoader#defineClass(String, ByteBuffer, java.security.ProtectionDomain)}), which would crash
+     * the JVM instead of throwing an exception should the jar be truncated or replaced while it is mapped. Instead, the buffer wraps
+     * the array returned by {@link #read(String)}.
+     *
+     * @param path The path of the entry
+     * @return A buffer whose remaining bytes are the contents of the entry, or <code>null</code> if the entry does not exist.
+     * @throws IOException If the entry could not be read
+     */
+    @Nullable
+    ByteBuffer readBuffer(@NotNull String path) throws IOException {
+        byte[] data = this.read(path);
+        return data == null ? null : ByteBuffer.wrap(data);
+    }
+
+    /**
+     * Obtains the URL that {@link java.net.URLClassLoader#findResource(String)} would return for an entry of this storage.
+     *
+     * @param path The path of the entry
+     * @return The URL of the entry
+     * @throws MalformedURLException If the URL could not be constructed
+     */
+    @NotNull
+    abstract URL toURL(@NotNull String path) throws MalformedURLException;
+}
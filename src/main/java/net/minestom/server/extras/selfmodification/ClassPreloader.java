@@ -0,0 +1,213 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.geolykt.starloader.launcher.Utils;
+import de.geolykt.starloader.util.JavaInterop;
+
+/**
+ * Reads and transforms classes on background threads ahead of demand, so that the thread requesting the class
+ * only needs to define it. Classes are preloaded in the order they were requested through {@link #addClassNames(Collection)},
+ * which usually is the order of a {@link ClassLoadTrace} of a previous launch, preceded by preload lists supplied by extensions.
+ *
+ * <p>Preloaded bytecode is discarded if the transformer pool changed after the class was preloaded or if the class
+ * turns out to be loaded from a different source. Classes that are of interest to transformers which are not
+ * {@link de.geolykt.starloader.transformers.ASMTransformer#isThreadSafe() thread-safe} (such as mixin) are not preloaded,
+ * as the side effects of such transformers must not happen speculatively.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class ClassPreloader {
+
+    private static final class PreloadedClass {
+        @NotNull
+        private final TransformerDispatchIndex transformerChain;
+        private final byte @NotNull[] transformedBytecode;
+        private final byte @NotNull[] untransformedBytecode;
+
+        private PreloadedClass(byte @NotNull[] untransformedBytecode, byte @NotNull[] transformedBytecode, @NotNull TransformerDispatchIndex transformerChain) {
+            this.untransformedBytecode = untransformedBytecode;
+            this.transformedBytecode = transformedBytecode;
+            this.transformerChain = transformerChain;
+        }
+    }
+
+    /**
+     * Whether class definitions should be traced and whether classes should be preloaded based on the trace of the previous launch
+     * and the preload lists of extensions. Controlled by the <code>org.stianloader.sll.preloadClasses</code> system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("org.stianloader.sll.preloadClasses");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassPreloader.class);
+
+    @NotNull
+    private final LongAdder discarded = new LongAdder();
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+    @NotNull
+    private final LongAdder skipped = new LongAdder();
+    @NotNull
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    @NotNull
+    private final Map<String, PreloadedClass> preloaded = new ConcurrentHashMap<>();
+    @NotNull
+    private final MinestomRootClassLoader root;
+    private volatile boolean started;
+
+    ClassPreloader(@NotNull MinestomRootClassLoader root) {
+        this.root = root;
+    }
+
+    /**
+     * Queues classes to be preloaded. If the preloader has already been {@link #start(int) started},
+     * the classes are only preloaded if the worker threads did not finish yet.
+     *
+     * @param names The binary names of the classes to preload
+     */
+    @Contract(mutates = "this")
+    public void addClassNames(@NotNull Collection<@NotNull String> names) {
+        this.pending.addAll(names);
+    }
+
+    /**
+     * Obtains how often preloaded bytecode was discarded because it was no longer accurate.
+     *
+     * @return The amount of discarded classes
+     */
+    @Contract(pure = true)
+    public long getDiscarded() {
+        return this.discarded.sum();
+    }
+
+    /**
+     * Obtains how often preloaded bytecode was used when a class was defined.
+     *
+     * @return The amount of used preloaded classes
+     */
+    @Contract(pure = true)
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Obtains how often a class was not preloaded because it may not be transformed speculatively, usually because
+     * a transformer that is not thread-safe is interested in it, or because no transformer changed it.
+     *
+     * @return The amount of skipped classes
+     */
+    @Contract(pure = true)
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    /**
+     * Checks whether preloaded bytecode for a class is available. The bytecode may however turn out to no longer be accurate.
+     *
+     * @param internalName The internal name of the class
+     * @return True if the class was preloaded and not {@link #take(String, byte[]) taken} yet, false otherwise.
+     */
+    boolean isPreloaded(@NotNull String internalName) {
+        return this.started && this.preloaded.containsKey(internalName);
+    }
+
+    private void preload(@NotNull String name) {
+        String internalName = name.replace('.', '/');
+        if (this.preloaded.containsKey(internalName)) {
+            return;
+        }
+        URL url = this.root.getResourceAsURLWithChildren(internalName + ".class");
+        if (url == null) {
+            return;
+        }
+        try (InputStream in = url.openStream()) {
+            byte[] untransformed = JavaInterop.readAllBytes(in);
+            TransformerDispatchIndex chain = this.root.getTransformerChain();
+            byte[] transformed = this.root.transformBytesSpeculatively(untransformed, name, Utils.toCodeSourceURI(url, name));
+            if (transformed == null || transformed == untransformed) {
+                // Classes the transformers leave untouched are defined as-is anyways, so retaining them would only waste memory
+                this.skipped.increment();
+            } else {
+                this.preloaded.putIfAbsent(internalName, new PreloadedClass(untransformed, transformed, chain));
+            }
+        } catch (Throwable t) {
+            if (t instanceof ThreadDeath) {
+                throw (ThreadDeath) t;
+            }
+            // The class will be loaded and transformed on demand, at which point errors will be reported
+            ClassPreloader.LOGGER.debug("Unable to preload class {}", name, t);
+        }
+    }
+
+    /**
+     * Starts preloading the queued classes on a pool of daemon threads. Should only be called once the transformer pool is complete.
+     *
+     * @param threads The amount of worker threads
+     */
+    @Contract(mutates = "this")
+    public void start(int threads) {
+        if (this.started) {
+            throw new IllegalStateException("The preloader was already started.");
+        }
+        this.started = true;
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, (task) -> {
+            Thread thread = new Thread(task, "SLL-ClassPreloader-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                this.root.setThreadLoggingClassloadingFailures(false);
+                for (String name = this.pending.poll(); name != null; name = this.pending.poll()) {
+                    this.preload(name);
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Obtains and forgets the preloaded bytecode of a class, provided that it is still accurate.
+     *
+     * @param internalName The internal name of the class
+     * @param untransformedBytecode The untransformed bytecode of the class that is about to be defined
+     * @return The transformed bytecode, or <code>null</code> if the class was not preloaded or if the preloaded bytecode is no longer accurate.
+     */
+    byte @Nullable[] take(@NotNull String internalName, byte @NotNull[] untransformedBytecode) {
+        if (!this.started) {
+            return null;
+        }
+        PreloadedClass preloaded = this.preloaded.remove(internalName);
+        if (preloaded == null) {
+            return null;
+        }
+        if (preloaded.transformerChain != this.root.getTransformerChain() || !Arrays.equals(preloaded.untransformedBytecode, untransformedBytecode)) {
+            this.discarded.increment();
+            return null;
+        }
+        this.hits.increment();
+        return preloaded.transformedBytecode;
+    }
+}
@@ -0,0 +1,152 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.ModuleVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.RecordComponentVisitor;
+import org.objectweb.asm.TypePath;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.sll.transform.ChangeReport;
+
+/**
+ * Writes a transformed {@link ClassNode} while copying the bytecode of unchanged methods from the untransformed class file.
+ * This visitor must be passed to the {@link ClassReader} of the untransformed class, and the {@link ClassWriter}
+ * must have been created using the same {@link ClassReader} instance so that the constant pool can be shared.
+ *
+ * <p>The {@link ClassReader} only copies the bytecode of a method if it directly sees the method writer
+ * of the {@link ClassWriter}, which is why unchanged methods are passed through while all other events
+ * of the reader are ignored. Everything else is emitted from the {@link ClassNode} at the end of the class.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class CopyThroughClassVisitor extends ClassVisitor {
+
+    @NotNull
+    private final Set<String> copiedMethods = new HashSet<>();
+    @NotNull
+    private final ClassNode node;
+    @NotNull
+    private final Map<String, MethodNode> unchangedMethods = new HashMap<>();
+
+    CopyThroughClassVisitor(@NotNull ClassWriter writer, @NotNull ClassNode node, @NotNull ChangeReport report) {
+        super(Opcodes.ASM9, writer);
+        this.node = node;
+        for (MethodNode method : node.methods) {
+            if (!report.isMethodChanged(method.name, method.desc)) {
+                this.unchangedMethods.put(method.name + method.desc, method);
+            }
+        }
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        ClassNode node = this.node;
+        super.visit(node.version, node.access, node.name, node.signature, node.superName, node.interfaces.toArray(new String[0]));
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public void visitAttribute(Attribute attribute) {
+        // Emitted from the node
+    }
+
+    @Override
+    public void visitEnd() {
+        this.node.accept(new ClassVisitor(Opcodes.ASM9, this.cv) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                // Already emitted
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                if (CopyThroughClassVisitor.this.copiedMethods.contains(name + descriptor)) {
+                    return null;
+                }
+                return super.visitMethod(access, name, descriptor, signature, exceptions);
+            }
+        });
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        return null;
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+        // Emitted from the node
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        String key = name + descriptor;
+        MethodNode method = this.unchangedMethods.get(key);
+        if (method == null) {
+            // Changed or removed method, changed methods are emitted from the node
+            return null;
+        }
+        this.copiedMethods.add(key);
+        // The reader falls back to visiting the original code should the signature or exceptions have changed
+        return super.visitMethod(method.access, method.name, method.desc, method.signature, method.exceptions.toArray(new String[0]));
+    }
+
+    @Override
+    public ModuleVisitor visitModule(String name, int access, String version) {
+        return null;
+    }
+
+    @Override
+    public void visitNestHost(String nestHost) {
+        // Emitted from the node
+    }
+
+    @Override
+    public void visitNestMember(String nestMember) {
+        // Emitted from the node
+    }
+
+    @Override
+    public void visitOuterClass(String owner, String name, String descriptor) {
+        // Emitted from the node
+    }
+
+    @Override
+    public void visitPermittedSubclass(String permittedSubclass) {
+        // Emitted from the node
+    }
+
+    @Override
+    public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+        return null;
+    }
+
+    @Override
+    public void visitSource(String source, String debug) {
+        // Emitted from the node
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return null;
+    }
+}
@@ -3,14 +3,30 @@ package net.minestom.server.extras.selfmodification;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.security.CodeSource;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.LoggerFactory;
 
+import de.geolykt.starloader.transformers.RawClassData;
+import de.geolykt.starloader.util.JavaInterop;
+
 /**
  * Classloader part of a hierarchy of classloader.
  */
@@ -19,8 +35,179 @@ public abstract class HierarchyClassLoader extends JavaInteropURLClassloader {
         ClassLoader.registerAsParallelCapable();
     }
 
-    protected final List<MinestomExtensionClassLoader> children = new LinkedList<>();
-    protected final List<HierarchyClassLoader> parents = new LinkedList<>();
+    /**
+     * Collects the reasons why a class that is present in the hierarchy could not be loaded, which allows classloaders
+     * to signal that they do not contain a class by returning <code>null</code> instead of throwing an exception.
+     * Only the outermost lookup creates a {@link ClassNotFoundException}, and only if no classloader could load the class.
+     * Classloaders that do not contain the class do not record anything.
+     */
+    static final class ClassLookupFailures {
+        @Nullable
+        private List<@NotNull Throwable> failures;
+
+        void add(@NotNull Throwable failure) {
+            List<@NotNull Throwable> failures = this.failures;
+            if (failures == null) {
+                failures = new ArrayList<>(2);
+                this.failures = failures;
+            }
+            failures.add(failure);
+        }
+
+        boolean isEmpty() {
+            return this.failures == null;
+        }
+
+        @NotNull
+        <T extends Throwable> T suppressInto(@NotNull T exception) {
+            List<@NotNull Throwable> failures = this.failures;
+            if (failures != null) {
+                for (Throwable failure : failures) {
+                    exception.addSuppressed(failure);
+                }
+            }
+            return exception;
+        }
+
+        @NotNull
+        ClassNotFoundException toException(@NotNull String name) {
+            List<@NotNull Throwable> failures = this.failures;
+            if (failures == null) {
+                return new ClassNotFoundException("Could not find class " + name);
+            }
+            ClassNotFoundException exception = new ClassNotFoundException("Could not load class " + name, failures.get(0));
+            for (int i = 1; i < failures.size(); i++) {
+                exception.addSuppressed(failures.get(i));
+            }
+            return exception;
+        }
+    }
+
+    /**
+     * Unmodifiable list view of an array that is replaced as a whole whenever it changes.
+     * Iterators operate on the array that was current when the iterator was created.
+     */
+    private static final class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+        @NotNull
+        private final Supplier<T @NotNull[]> array;
+
+        private ArrayView(@NotNull Supplier<T @NotNull[]> array) {
+            this.array = array;
+        }
+
+        @Override
+        public T get(int index) {
+            return this.array.get()[index];
+        }
+
+        @Override
+        @NotNull
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(this.array.get())).iterator();
+        }
+
+        @Override
+        public int size() {
+            return this.array.get().length;
+        }
+    }
+
+    /**
+     * The {@link HierarchyClassLoader#getSearchOrder() search order} of a classloader, computed at a given {@link HierarchyClassLoader#HIERARCHY_VERSION hierarchy version}.
+     */
+    private static final class SearchOrder {
+        private final MinestomExtensionClassLoader @NotNull[] loaders;
+        private final int version;
+
+        private SearchOrder(int version, MinestomExtensionClassLoader @NotNull[] loaders) {
+            this.version = version;
+            this.loaders = loaders;
+        }
+    }
+
+    /**
+     * Incremented whenever a child is added to or removed from any classloader, invalidating all {@link #getSearchOrder() search orders}.
+     */
+    @NotNull
+    private static final AtomicInteger HIERARCHY_VERSION = new AtomicInteger();
+
+    /**
+     * Obtains the current hierarchy version, which changes whenever a child is added to or removed from any classloader.
+     * Used to invalidate state derived from the hierarchy.
+     *
+     * @return The current hierarchy version
+     */
+    static int getHierarchyVersion() {
+        return HierarchyClassLoader.HIERARCHY_VERSION.get();
+    }
+
+    private static <T> T @NotNull[] append(T @NotNull[] array, @NotNull T element) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = element;
+        return copy;
+    }
+
+    private static void collectDescendants(@NotNull HierarchyClassLoader loader, @NotNull List<@NotNull MinestomExtensionClassLoader> out, @NotNull Set<HierarchyClassLoader> visited) {
+        for (MinestomExtensionClassLoader child : loader.childArray) {
+            if (visited.add(child)) {
+                out.add(child);
+                HierarchyClassLoader.collectDescendants(child, out, visited);
+            }
+        }
+    }
+
+    private static <T> T @NotNull[] remove(T @NotNull[] array, @NotNull T element) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == element) {
+                T[] copy = Arrays.copyOf(array, array.length - 1);
+                System.arraycopy(array, i + 1, copy, i, array.length - i - 1);
+                return copy;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Live, unmodifiable view of the children of this classloader in registration order. Children are added through
+     * {@link #addChild(MinestomExtensionClassLoader)} and removed through {@link #removeChildInHierarchy(MinestomExtensionClassLoader)}.
+     */
+    protected final List<MinestomExtensionClassLoader> children = new ArrayView<>(() -> this.childArray);
+
+    /**
+     * Live, unmodifiable view of the parents of this classloader, see {@link #children}.
+     */
+    protected final List<HierarchyClassLoader> parents = new ArrayView<>(() -> this.parentArray);
+
+    /**
+     * Immutable snapshot of the children of this classloader in registration order.
+     * The array is never modified once published, instead a modified copy is assigned while holding the lock
+     * on {@link HierarchyClassLoader}, which is why the array can be iterated without any locking.
+     */
+    private volatile MinestomExtensionClassLoader @NotNull[] childArray = new MinestomExtensionClassLoader[0];
+
+    /**
+     * Immutable snapshot of the parents of this classloader, published the same way as {@link #childArray}.
+     */
+    private volatile HierarchyClassLoader @NotNull[] parentArray = new HierarchyClassLoader[0];
+
+    /**
+     * The cached {@link #getSearchOrder() search order}, or <code>null</code> if it was not computed yet.
+     */
+    @Nullable
+    private volatile SearchOrder searchOrder;
+
+    /**
+     * Cache of resources that are known to be absent from the URLs of this classloader.
+     */
+    @NotNull
+    final NegativeLookupCache negativeLookupCache = new NegativeLookupCache();
+
+    /**
+     * The {@link ClassPathStorage storages} of the URLs of this classloader in the order of the URLs, or <code>null</code>
+     * if the storages are {@link ClassPathStorage#ENABLED disabled} or if at least one URL is not supported by any storage.
+     */
+    @Nullable
+    private volatile ClassPathStorage @Nullable[] storages = ClassPathStorage.ENABLED ? new ClassPathStorage[0] : null;
 
     public HierarchyClassLoader(String name, URL[] urls, ClassLoader parent) {
         super(name, urls, parent);
@@ -28,11 +215,102 @@ public abstract class HierarchyClassLoader extends JavaInteropURLClassloader {
 
     public void addChild(@NotNull MinestomExtensionClassLoader loader) {
         synchronized (HierarchyClassLoader.class) {
-            this.children.add(loader);
-            loader.parents.add(this);
+            // Publish the parent first so that a reader which sees the child can also see it's parent
+            HierarchyClassLoader child = loader;
+            child.parentArray = HierarchyClassLoader.append(child.parentArray, this);
+            this.childArray = HierarchyClassLoader.append(this.childArray, loader);
+            HierarchyClassLoader.HIERARCHY_VERSION.incrementAndGet();
+        }
+        this.onHierarchyChanged();
+    }
+
+    /**
+     * Defines a class whose bytecode was already transformed. Only to be called by
+     * {@link MinestomRootClassLoader#transformAndDefine(HierarchyClassLoader, String, ByteBuffer, java.net.URL, java.net.URI)},
+     * which ensures that the class is defined only once.
+     *
+     * @param name The binary name of the class
+     * @param bytes The transformed bytecode of the class
+     * @param source The code source of the class, or <code>null</code> if unknown
+     * @return The defined class
+     * @throws LinkageError If the class could not be defined
+     */
+    @NotNull
+    final Class<?> defineTransformedClass(@NotNull String name, @NotNull ByteBuffer bytes, @Nullable CodeSource source) {
+        return super.defineClass(name, bytes, source);
+    }
+
+    /**
+     * Obtains the class of the given name that was defined by this classloader, without loading it.
+     *
+     * @param name The binary name of the class
+     * @return The class, or <code>null</code> if this classloader did not define (or initiate the loading of) the class.
+     */
+    @Nullable
+    final Class<?> findDefinedClass(@NotNull String name) {
+        return this.findLoadedClass(name);
+    }
+
+    /**
+     * Detaches this classloader from all of it's parents without notifying them. Must be called while holding the lock on {@link HierarchyClassLoader}.
+     */
+    void clearParents() {
+        this.parentArray = new HierarchyClassLoader[0];
+    }
+
+    /**
+     * Obtains the children of this classloader in registration order.
+     *
+     * @return An immutable snapshot of the children, which must not be modified.
+     */
+    MinestomExtensionClassLoader @NotNull[] getChildArray() {
+        return this.childArray;
+    }
+
+    /**
+     * Obtains the parents of this classloader.
+     *
+     * @return An immutable snapshot of the parents, which must not be modified.
+     */
+    HierarchyClassLoader @NotNull[] getParentArray() {
+        return this.parentArray;
+    }
+
+    /**
+     * Collects the hit and miss statistics of the negative lookup caches of this classloader and all of it's children.
+     *
+     * @return A newly created map containing the summed up statistics
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public Map<String, Long> getNegativeLookupStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        this.collectNegativeLookupStatistics(statistics);
+        return statistics;
+    }
+
+    void collectNegativeLookupStatistics(@NotNull Map<String, Long> out) {
+        this.negativeLookupCache.collectStatistics("negativeResourceLookup", out);
+        for (MinestomExtensionClassLoader descendant : this.getSearchOrder()) {
+            descendant.negativeLookupCache.collectStatistics("negativeResourceLookup", out);
         }
     }
 
+    @Override
+    public URL findResource(String name) {
+        NegativeLookupCache cache = this.negativeLookupCache;
+        if (cache.isAbsent(name)) {
+            return null;
+        }
+        int generation = cache.getGeneration();
+        URL url = super.findResource(name);
+        if (url == null) {
+            cache.recordMiss(name, generation);
+        }
+        return url;
+    }
+
     @Override
     public String findLibrary(String libname) {
         // We are increasing the visibility of this method knowingly to suppress an issue with LWJGL running code it shouldn't run.
@@ -58,10 +336,29 @@ public abstract class HierarchyClassLoader extends JavaInteropURLClassloader {
      * @param name The pathname of the resource. See {@link #findResource(String)}.
      * @return The {@link InputStream} of the corresponding found resource, or null if such a resource does not exist.
      * @implNote Search occurs depth-first, which means that registration order can matter quite a lot.
+     * If all URLs of the hierarchy could be indexed, the classloader that provides the resource is looked up
+     * in the resource index instead of querying every classloader.
      * @since 0.0.1
      */
     @Nullable
     public InputStream getResourceAsStreamWithChildren(@NotNull String name) {
+        HierarchyResourceIndex resourceIndex = this.getResourceIndex();
+        if (resourceIndex != null && resourceIndex.isComplete()) {
+            HierarchyClassLoader owner = resourceIndex.findOwner(this, name, true);
+            if (owner == null) {
+                return null;
+            }
+            URL url = owner.findResource(name);
+            if (url != null) {
+                try {
+                    return url.openStream();
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(HierarchyClassLoader.class).warn("Unable to open URL '{}' (from pathname '{}') from classloader '{}'!", url, name, owner.getName(), e);
+                }
+            }
+            // Fall back to searching the hierarchy
+        }
+
         URL url = this.findResource(name);
         if (url != null) {
             try {
@@ -71,10 +368,14 @@ public abstract class HierarchyClassLoader extends JavaInteropURLClassloader {
             }
         }
 
-        for (MinestomExtensionClassLoader child : this.children) {
-            InputStream childInput = child.getResourceAsStreamWithChildren(name);
-            if (childInput != null) {
-                return childInput;
+        for (MinestomExtensionClassLoader descendant : this.getSearchOrder()) {
+            URL descendantURL = descendant.findResource(name);
+            if (descendantURL != null) {
+                try {
+                    return descendantURL.openStream();
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(HierarchyClassLoader.class).warn("Unable to open URL '{}' (from pathname '{}') from classloader '{}'!", descendantURL, name, descendant.getName(), e);
+                }
             }
         }
         return null;
@@ -92,29 +393,247 @@ public abstract class HierarchyClassLoader extends JavaInteropURLClassloader {
      * @param name The pathname of the resource.
      * @return The {@link URL} of the corresponding found resource, or null if such a resource does not exist.
      * @implNote Search occurs depth-first, which means that registration order can matter quite a lot.
+     * If all URLs of the hierarchy could be indexed, the classloader that provides the resource is looked up
+     * in the resource index instead of querying every classloader.
      * @since 4.0.0-a20241006
      */
     @Nullable
     @ApiStatus.AvailableSince(value = "4.0.0-a20241006")
     public URL getResourceAsURLWithChildren(@NotNull String name) {
+        HierarchyResourceIndex resourceIndex = this.getResourceIndex();
+        if (resourceIndex != null && resourceIndex.isComplete()) {
+            HierarchyClassLoader owner = resourceIndex.findOwner(this, name, true);
+            if (owner == null) {
+                return null;
+            }
+            URL url = owner.findResource(name);
+            if (url != null) {
+                return url;
+            }
+            // Fall back to searching the hierarchy
+        }
+
         URL url = this.findResource(name);
         if (url != null) {
             return url;
         }
 
-        for (MinestomExtensionClassLoader child : this.children) {
-            URL childURL = child.getResourceAsURLWithChildren(name);
-            if (childURL != null) {
-                return childURL;
+        for (MinestomExtensionClassLoader descendant : this.getSearchOrder()) {
+            URL descendantURL = descendant.findResource(name);
+            if (descendantURL != null) {
+                return descendantURL;
             }
         }
         return null;
     }
 
+    /**
+     * Reads a resource from this classloader, or if that fails, from any of its children, searching the classloaders
+     * in the same order as {@link #getResourceAsURLWithChildren(String)}. If all URLs of the hierarchy could be indexed,
+     * only the classloader that provides the resource is asked.
+     *
+     * <p>Unlike {@link #getResourceAsStreamWithChildren(String)}, failures to read a resource are not swallowed.
+     *
+     * @param name The pathname of the resource.
+     * @return The contents of the resource attached with the URL it was read from, or <code>null</code> if no classloader provides the resource.
+     * @throws IOException If the resource exists but could not be read
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @ApiStatus.Internal
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public RawClassData readResourceWithChildren(@NotNull String name) throws IOException {
+        HierarchyResourceIndex resourceIndex = this.getResourceIndex();
+        if (resourceIndex != null && resourceIndex.isComplete()) {
+            HierarchyClassLoader owner = resourceIndex.findOwner(this, name, true);
+            if (owner == null) {
+                return null;
+            }
+            RawClassData data = owner.readOwnResource(name);
+            if (data != null) {
+                return data;
+            }
+            // Fall back to searching the hierarchy
+        }
+
+        RawClassData data = this.readOwnResource(name);
+        if (data != null) {
+            return data;
+        }
+        for (MinestomExtensionClassLoader descendant : this.getSearchOrder()) {
+            data = descendant.readOwnResource(name);
+            if (data != null) {
+                return data;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a resource from the URLs of this classloader (excluding parents and children), preferring the
+     * {@link ClassPathStorage class path storages} of this classloader over {@link #findResource(String)}.
+     *
+     * @param name The pathname of the resource
+     * @return The contents of the resource attached with the URL it was read from, or <code>null</code> if the resource does not exist.
+     * @throws IOException If the resource could not be read
+     */
+    @Nullable
+    RawClassData readOwnResource(@NotNull String name) throws IOException {
+        RawClassData stored = this.readStoredResource(name);
+        if (stored != null) {
+            return stored;
+        }
+        URL url = this.findResource(name);
+        if (url == null) {
+            return null;
+        }
+        try (InputStream in = url.openStream()) {
+            return new RawClassData(url, JavaInterop.readAllBytes(in));
+        }
+    }
+
     public void removeChildInHierarchy(MinestomExtensionClassLoader child) {
         synchronized (HierarchyClassLoader.class) {
-            this.children.remove(child);
-            this.children.forEach(c -> c.removeChildInHierarchy(child));
+            MinestomExtensionClassLoader[] children = HierarchyClassLoader.remove(this.childArray, child);
+            this.childArray = children;
+            HierarchyClassLoader.HIERARCHY_VERSION.incrementAndGet();
+            for (MinestomExtensionClassLoader c : children) {
+                c.removeChildInHierarchy(child);
+            }
         }
+        this.onHierarchyChanged();
+    }
+
+    /**
+     * Lists the entries of an URL of this classloader and adds them to the negative lookup cache and the {@link #getResourceIndex() resource index}.
+     * Must be called whenever an URL is added to this classloader, followed by {@link #onHierarchyChanged()}.
+     *
+     * @param url The URL that was added
+     */
+    void indexURL(@NotNull URL url) {
+        this.openStorage(url);
+        HierarchyResourceIndex resourceIndex = this.getResourceIndex();
+        if (ClassPathEntries.isMutable(url)) {
+            // Classes added to a directory later on (for example by hot-compiling them from an IDE) must not be reported as absent
+            this.negativeLookupCache.markMutable();
+            if (resourceIndex != null) {
+                resourceIndex.markUnindexed(this);
+            }
+            return;
+        }
+        List<@NotNull String> entries;
+        try {
+            entries = ClassPathEntries.list(url);
+        } catch (IOException | RuntimeException e) {
+            LoggerFactory.getLogger(HierarchyClassLoader.class).debug("Unable to list the entries of URL {} of classloader {}; lookups will not be cached.", url, this.getName(), e);
+            this.negativeLookupCache.markIncomplete();
+            if (resourceIndex != null) {
+                resourceIndex.markUnindexed(this);
+            }
+            return;
+        }
+        this.negativeLookupCache.addLayer(entries, entries.size());
+        if (resourceIndex != null) {
+            for (String entry : entries) {
+                resourceIndex.index(this, entry);
+            }
+        }
+    }
+
+    /**
+     * Closes this classloader and releases the {@link ClassPathStorage class path storages} of it's URLs.
+     * Mapped jars are not unmapped explicitly, as a concurrent read would access unmapped memory. Instead, the mapping
+     * is freed once the storages are garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            this.storages = null;
+        }
+        super.close();
+    }
+
+    private synchronized void openStorage(@NotNull URL url) {
+        ClassPathStorage[] storages = this.storages;
+        if (storages == null) {
+            return;
+        }
+        try {
+            ClassPathStorage[] copy = Arrays.copyOf(storages, storages.length + 1);
+            copy[storages.length] = ClassPathStorage.open(url);
+            this.storages = copy;
+        } catch (IOException | RuntimeException e) {
+            LoggerFactory.getLogger(HierarchyClassLoader.class).debug("URL {} of classloader {} cannot be read through a class path storage; falling back to the URLClassLoader.", url, this.getName(), e);
+            this.storages = null;
+        }
+    }
+
+    /**
+     * Reads a resource from the URLs of this classloader (excluding parents and children) through the {@link ClassPathStorage class path storages}
+     * of this classloader, bypassing {@link #findResource(String)}.
+     *
+     * @param name The pathname of the resource
+     * @return The contents of the resource attached with the URL that {@link #findResource(String)} would return, or <code>null</code>
+     * if the resource does not exist or if the resource cannot be read through class path storages.
+     * @throws IOException If the resource could not be read
+     */
+    @Nullable
+    RawClassData readStoredResource(@NotNull String name) throws IOException {
+        ClassPathStorage[] storages = this.storages;
+        if (storages == null || this.negativeLookupCache.isAbsent(name)) {
+            return null;
+        }
+        int generation = this.negativeLookupCache.getGeneration();
+        for (ClassPathStorage storage : storages) {
+            ByteBuffer data = storage.readBuffer(name);
+            if (data != null) {
+                return new RawClassData(storage.toURL(name), data);
+            }
+        }
+        // Spare the caller the same lookup through findResource
+        this.negativeLookupCache.recordMiss(name, generation);
+        return null;
+    }
+
+    /**
+     * Obtains the descendants (children, their children and so on) of this classloader in the order they are searched
+     * when looking up a class or a resource. The order is the pre-order of a depth-first search, i.e. a child takes
+     * precedence over it's own children, which take precedence over the next child. A classloader that is the child of multiple
+     * classloaders (which is the case for extensions with multiple dependencies) is only listed at it's first occurrence,
+     * as searching it again would yield the same result.
+     *
+     * <p>The order is cached and recomputed whenever a child is added to or removed from any classloader.
+     *
+     * @return The search order, which must not be modified.
+     */
+    MinestomExtensionClassLoader @NotNull[] getSearchOrder() {
+        int version = HierarchyClassLoader.HIERARCHY_VERSION.get();
+        SearchOrder order = this.searchOrder;
+        if (order != null && order.version == version) {
+            return order.loaders;
+        }
+        List<@NotNull MinestomExtensionClassLoader> loaders = new ArrayList<>();
+        HierarchyClassLoader.collectDescendants(this, loaders, Collections.newSetFromMap(new IdentityHashMap<>()));
+        MinestomExtensionClassLoader[] array = loaders.toArray(new MinestomExtensionClassLoader[0]);
+        // Should the hierarchy change while the order is computed, the order will be recomputed on the next call
+        this.searchOrder = new SearchOrder(version, array);
+        return array;
+    }
+
+    /**
+     * Obtains the index of the resources of the hierarchy this classloader belongs to.
+     *
+     * @return The resource index, or <code>null</code> if resources are not indexed.
+     */
+    @Nullable
+    HierarchyResourceIndex getResourceIndex() {
+        return null;
+    }
+
+    /**
+     * Called whenever the URLs or children of this classloader change, which may invalidate cached lookups.
+     */
+    void onHierarchyChanged() {
+        // NOP by default
     }
 }
@@ -0,0 +1,178 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Index of the resources (including class files) provided by the classloaders of a hierarchy, built from the central
+ * directories of their jars (or by walking their directories) as listed by {@link ClassPathEntries}. Used to find the classloader
+ * that provides a resource or defines a class without asking every classloader of the hierarchy, which would create
+ * a {@link ClassNotFoundException} for every missed class and query every URL for every missed resource.
+ *
+ * <p>Classloaders whose URLs cannot be indexed (for example because they are not local files, or because they are directories
+ * whose contents may change at any time) are remembered as such.
+ * As long as such a classloader exists, the index is {@link #isComplete() incomplete} and must not be used to rule out
+ * the existence of a resource.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class HierarchyResourceIndex {
+
+    /**
+     * The classloaders that provide a resource, indexed by the path of the resource.
+     * Classloaders are stored in the order they were indexed in.
+     */
+    @NotNull
+    private final Map<String, HierarchyClassLoader[]> resources = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final Set<HierarchyClassLoader> unindexedLoaders = ConcurrentHashMap.newKeySet();
+
+    private void add(@NotNull String path, @NotNull HierarchyClassLoader loader) {
+        this.resources.compute(path, (key, loaders) -> {
+            if (loaders == null) {
+                return new HierarchyClassLoader[] {loader};
+            }
+            for (HierarchyClassLoader present : loaders) {
+                if (present == loader) {
+                    return loaders;
+                }
+            }
+            HierarchyClassLoader[] copy = Arrays.copyOf(loaders, loaders.length + 1);
+            copy[loaders.length] = loader;
+            return copy;
+        });
+    }
+
+    /**
+     * Finds the extension classloader that would define a class when searching the children of a classloader
+     * depth-first, as done by {@link MinestomRootClassLoader#loadClass(String, boolean)} and
+     * {@link MinestomExtensionClassLoader#loadClassAsChild(String, boolean)}. Should only be called if the index
+     * is {@link #isComplete() complete}.
+     *
+     * @param ancestor The classloader whose children (and their children) should be searched
+     * @param name The binary name of the class
+     * @return The classloader that provides the class, or <code>null</code> if no descendant of the ancestor provides the class.
+     */
+    @Nullable
+    MinestomExtensionClassLoader findClassOwner(@NotNull HierarchyClassLoader ancestor, @NotNull String name) {
+        return (MinestomExtensionClassLoader) this.findOwner(ancestor, name.replace('.', '/') + ".class", false);
+    }
+
+    /**
+     * Finds the classloader that provides a resource when searching a classloader and it's children depth-first,
+     * as done by {@link HierarchyClassLoader#getResourceAsURLWithChildren(String)}. Should only be called if the index
+     * is {@link #isComplete() complete}.
+     *
+     * @param start The classloader to start searching at
+     * @param path The path of the resource
+     * @param includeStart Whether the resources of the start classloader should be considered, or only the resources of it's descendants.
+     * @return The classloader that provides the resource, or <code>null</code> if no searched classloader provides the resource.
+     */
+    @Nullable
+    HierarchyClassLoader findOwner(@NotNull HierarchyClassLoader start, @NotNull String path, boolean includeStart) {
+        HierarchyClassLoader[] candidates = this.resources.get(path);
+        if (candidates == null) {
+            return null;
+        }
+        if (includeStart) {
+            for (HierarchyClassLoader candidate : candidates) {
+                if (candidate == start) {
+                    return start;
+                }
+            }
+        }
+        // Pre-order, i.e. a child takes precedence over it's own children, which take precedence over the next child
+        for (MinestomExtensionClassLoader descendant : start.getSearchOrder()) {
+            for (HierarchyClassLoader candidate : candidates) {
+                if (candidate == descendant) {
+                    return descendant;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtains the classloader that provides a resource, provided that no other classloader of the hierarchy provides it.
+     * Should only be called if the index is {@link #isComplete() complete}.
+     *
+     * @param path The path of the resource
+     * @return The only classloader that provides the resource, or <code>null</code> if no or several classloaders provide the resource.
+     */
+    @Nullable
+    HierarchyClassLoader getSoleProvider(@NotNull String path) {
+        HierarchyClassLoader[] candidates = this.resources.get(path);
+        return candidates == null || candidates.length != 1 ? null : candidates[0];
+    }
+
+    /**
+     * Indexes an entry of an URL of a classloader.
+     *
+     * @param loader The classloader the entry belongs to
+     * @param path The path of the entry, as returned by {@link ClassPathEntries#list(java.net.URL)}
+     */
+    void index(@NotNull HierarchyClassLoader loader, @NotNull String path) {
+        if (path.startsWith("META-INF/versions/")) {
+            // Multi-release jars store versioned entries under META-INF/versions/<version>/, which may be served under the unversioned path.
+            // Should the running JVM not support multi-release jars, the lookup of the unversioned path falls back to searching the hierarchy.
+            int versionEnd = path.indexOf('/', "META-INF/versions/".length());
+            if (versionEnd != -1) {
+                this.add(path.substring(versionEnd + 1), loader);
+            }
+        }
+        this.add(path, loader);
+    }
+
+    /**
+     * Checks whether the index knows about all resources of all classloaders.
+     *
+     * @return True if the index is complete, false if at least one classloader could not be indexed.
+     */
+    @Contract(pure = true)
+    boolean isComplete() {
+        return this.unindexedLoaders.isEmpty();
+    }
+
+    /**
+     * Records that an URL of a classloader could not be indexed, rendering the index {@link #isComplete() incomplete}.
+     *
+     * @param loader The classloader whose URL could not be indexed
+     */
+    void markUnindexed(@NotNull HierarchyClassLoader loader) {
+        this.unindexedLoaders.add(loader);
+    }
+
+    /**
+     * Removes a classloader from the index, usually because it was closed.
+     *
+     * @param loader The classloader to remove
+     */
+    void remove(@NotNull HierarchyClassLoader loader) {
+        this.unindexedLoaders.remove(loader);
+        for (String path : this.resources.keySet()) {
+            this.resources.computeIfPresent(path, (key, loaders) -> {
+                for (int i = 0; i < loaders.length; i++) {
+                    if (loaders[i] == loader) {
+                        if (loaders.length == 1) {
+                            return null;
+                        }
+                        HierarchyClassLoader[] copy = new HierarchyClassLoader[loaders.length - 1];
+                        System.arraycopy(loaders, 0, copy, 0, i);
+                        System.arraycopy(loaders, i + 1, copy, i, copy.length - i);
+                        return copy;
+                    }
+                }
+                return loaders;
+            });
+        }
+    }
+}
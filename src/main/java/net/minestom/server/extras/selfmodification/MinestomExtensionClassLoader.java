@@ -3,18 +3,16 @@ package net.minestom.server.extras.selfmodification;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.CodeSigner;
-import java.security.CodeSource;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Locale;
 
 import org.jetbrains.annotations.ApiStatus.ScheduledForRemoval;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.LoggerFactory;
 
 import de.geolykt.starloader.launcher.Utils;
+import de.geolykt.starloader.transformers.RawClassData;
 import de.geolykt.starloader.util.JavaInterop;
 
 public class MinestomExtensionClassLoader extends HierarchyClassLoader {
@@ -23,27 +21,44 @@ public class MinestomExtensionClassLoader extends HierarchyClassLoader {
      * Root ClassLoader, everything goes through it before any attempt at loading is done inside this classloader.
      */
     private final MinestomRootClassLoader root;
-    private static final boolean DEBUG = Boolean.getBoolean("classloader.debug");
-    private static final boolean DUMP = DEBUG || Boolean.getBoolean("classloader.dump");
 
     public MinestomExtensionClassLoader(String name, URL[] urls, MinestomRootClassLoader root) {
         super(name, urls, root);
         this.root = root;
+        for (URL url : urls) {
+            this.indexURL(url);
+        }
     }
 
     @Override
     public void addURL(URL url) {
         super.addURL(url);
+        this.indexURL(url);
+        this.onHierarchyChanged();
+    }
+
+    @Override
+    @NotNull
+    HierarchyResourceIndex getResourceIndex() {
+        return this.root.resourceIndex;
+    }
+
+    @Override
+    void onHierarchyChanged() {
+        this.root.onHierarchyChanged();
     }
 
     @Override
     public void close() throws IOException {
         synchronized (HierarchyClassLoader.class) {
-            for (HierarchyClassLoader parent : this.parents) {
+            for (HierarchyClassLoader parent : this.getParentArray()) {
                 parent.removeChildInHierarchy(this);
             }
-            this.parents.clear();
-            for (MinestomExtensionClassLoader cl : new ArrayList<>(this.children)) {
+            this.clearParents();
+            this.root.forgetPackageOwner(this);
+            this.root.forgetDefinedClasses(this);
+            this.root.resourceIndex.remove(this);
+            for (MinestomExtensionClassLoader cl : this.getChildArray()) {
                 LoggerFactory.getLogger(MinestomExtensionClassLoader.class).info("Closing classloader {} as it is a child of classloader {}, which is getting closed", cl.getName(), this.getName());
                 cl.close();
             }
@@ -58,15 +73,15 @@ public class MinestomExtensionClassLoader extends HierarchyClassLoader {
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        ClassLookupFailures failures = new ClassLookupFailures();
+        Class<?> loaded = this.findClassAsChild(name, resolve, failures);
+        if (loaded != null) {
+            return loaded;
+        }
         try {
-            return this.loadClassAsChild(name, resolve);
-        } catch (ClassNotFoundException cnfe) {
-            try {
-                return root.loadClass(name, resolve);
-            } catch (ClassNotFoundException e) {
-                e.addSuppressed(cnfe);
-                throw e;
-            }
+            return this.root.loadClass(name, resolve);
+        } catch (ClassNotFoundException e) {
+            throw failures.suppressInto(e);
         }
     }
 
@@ -78,60 +93,113 @@ public class MinestomExtensionClassLoader extends HierarchyClassLoader {
      * @throws ClassNotFoundException if the class is not found inside this classloader
      */
     public Class<?> loadClassAsChild(String name, boolean resolve) throws ClassNotFoundException {
-        Class<?> loadedClass = this.findLoadedClass(name);
-        if (loadedClass != null) {
-            return loadedClass;
+        if (this.root.isProtected(name)) {
+            throw new ClassNotFoundException("The MinestomExtensionClassLoader is not permitted to load this class as it is protected by the root classloader.");
         }
+        ClassLookupFailures failures = new ClassLookupFailures();
+        Class<?> loaded = this.findClassAsChild(name, resolve, failures);
+        if (loaded == null) {
+            throw failures.toException(name);
+        }
+        return loaded;
+    }
 
+    /**
+     * Loads a class from this classloader, or if the class is not present in this classloader, from the children of this classloader.
+     * Unlike {@link #loadClassAsChild(String, boolean)}, a missing class is not signalled by throwing an exception.
+     *
+     * @param name The binary name of the class
+     * @param resolve Whether to resolve the class
+     * @param failures The failures that occur while loading a class that is present
+     * @return The loaded class, or <code>null</code> if the class is not present, protected or could not be loaded.
+     */
+    @Nullable
+    Class<?> findClassAsChild(@NotNull String name, boolean resolve, @NotNull ClassLookupFailures failures) {
         if (this.root.isProtected(name)) {
-            throw new ClassNotFoundException("The MinestomExtensionClassLoader is not permitted to load this class as it is protected by the root classloader.");
+            return null;
+        }
+        if (this.root.isInvalidClass(name)) {
+            failures.add(new ClassNotFoundException("Class " + name + " was registered as invalid and thus cannot be loaded."));
+            return null;
         }
 
-        try {
-            // not in children, attempt load in this classloader
-            String path = name.replace(".", "/") + ".class";
-            URL url = this.findResource(path);
-            if (url == null) {
-                throw new ClassNotFoundException("Could not find class " + name);
+        Class<?> loaded = this.defineOwnClass(name, resolve, failures);
+        if (loaded != null) {
+            return loaded;
+        }
+
+        MinestomExtensionClassLoader owner = null;
+        if (this.root.resourceIndex.isComplete()) {
+            owner = this.root.resourceIndex.findClassOwner(this, name);
+            if (owner == null) {
+                return null;
+            }
+            loaded = owner.defineOwnClass(name, resolve, failures);
+            if (loaded != null) {
+                return loaded;
             }
-            try (InputStream in = url.openStream()) {
-                if (in == null) {
-                    throw new AssertionError();
+            // The class is present but could not be loaded, which is why the other children need to be probed
+        }
+        for (MinestomExtensionClassLoader descendant : this.getSearchOrder()) {
+            if (descendant != owner) {
+                loaded = descendant.defineOwnClass(name, resolve, failures);
+                if (loaded != null) {
+                    return loaded;
                 }
-                byte[] bytes = JavaInterop.readAllBytes(in);
-                bytes = this.root.transformBytes(bytes, name, Utils.toCodeSourceURI(url, name));
-                if (MinestomExtensionClassLoader.DUMP) {
-                    Path parent = Paths.get("classes", path).getParent();
-                    if (parent != null) {
-                        Files.createDirectories(parent);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads a class from the URLs of this classloader, without looking up the class in the children of this classloader.
+     * Assumes that the class is not protected.
+     *
+     * @param name The binary name of the class
+     * @param resolve Whether to resolve the class
+     * @param failures The failures that occur while loading a class that is present
+     * @return The loaded class, or <code>null</code> if the class is not present or could not be loaded.
+     */
+    @Nullable
+    Class<?> defineOwnClass(@NotNull String name, boolean resolve, @NotNull ClassLookupFailures failures) {
+        Class<?> loadedClass = this.findLoadedClass(name);
+        if (loadedClass != null) {
+            return loadedClass;
+        }
+
+        // No class loading lock is held while transforming the class, see MinestomRootClassLoader#transformAndDefine
+        String path = name.replace(".", "/") + ".class";
+        RawClassData stored = null;
+        URL url = null;
+        try {
+            stored = this.readStoredResource(path);
+            url = stored == null ? this.findResource(path) : stored.getSource();
+        } catch (IOException e) {
+            failures.add(e);
+        }
+        if (url != null) {
+            try {
+                ByteBuffer bytes;
+                if (stored != null) {
+                    bytes = stored.getBuffer();
+                } else {
+                    try (InputStream in = url.openStream()) {
+                        if (in == null) {
+                            throw new AssertionError();
+                        }
+                        bytes = ByteBuffer.wrap(JavaInterop.readAllBytes(in));
                     }
-                    Files.write(Paths.get("classes", path), bytes);
-                }
-                String urlPath = url.getPath();
-                int seperatorIndex = urlPath.lastIndexOf('!');
-                if (seperatorIndex != -1) {
-                    url = new URL(urlPath.substring(0, seperatorIndex));
                 }
-                Class<?> clazz = super.defineClass(name, bytes, 0, bytes.length, new CodeSource(url, (CodeSigner[]) null));
+                Class<?> clazz = this.root.transformAndDefine(this, name, bytes, url, Utils.toCodeSourceURI(url, name));
                 if (resolve) {
                     super.resolveClass(clazz);
                 }
                 return clazz;
             } catch (Throwable e) {
-                throw new ClassNotFoundException("Could not load class " + name, e);
-            }
-        } catch (ClassNotFoundException e) {
-            for (MinestomExtensionClassLoader child : this.children) {
-                try {
-                    Class<?> loaded = child.loadClassAsChild(name, resolve);
-                    return loaded;
-                } catch (ClassNotFoundException e1) {
-                    // move on to next child
-                    e.addSuppressed(e1);
-                }
+                failures.add(e);
             }
-            throw e;
         }
+        return null;
     }
 
     @Override
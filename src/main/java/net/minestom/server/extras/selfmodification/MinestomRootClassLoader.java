@@ -10,22 +10,29 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.CodeSigner;
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.ApiStatus.Experimental;
@@ -45,12 +52,16 @@ import org.objectweb.asm.util.CheckClassAdapter;
 import org.objectweb.asm.util.TraceClassVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.stianloader.sll.transform.ChangeReport;
 import org.stianloader.sll.transform.CodeTransformer;
+import org.stianloader.sll.transform.ReportingCodeTransformer;
 
 import de.geolykt.starloader.launcher.Utils;
 import de.geolykt.starloader.transformers.ASMTransformer;
 import de.geolykt.starloader.transformers.RawClassData;
 import de.geolykt.starloader.transformers.TransformableClassloader;
+import de.geolykt.starloader.transformers.TransformationStatistics;
+import de.geolykt.starloader.transformers.TransformerStatistics;
 import de.geolykt.starloader.util.JavaInterop;
 import de.geolykt.starloader.util.OrderedCollection;
 
@@ -59,7 +70,85 @@ import de.geolykt.starloader.util.OrderedCollection;
  */
 public class MinestomRootClassLoader extends HierarchyClassLoader implements TransformableClassloader {
 
+    /**
+     * The transformers that are interested in transforming a class.
+     */
+    private static final class CandidateSelection {
+        private final ASMTransformer @NotNull[] candidates;
+        private final int count;
+        private final TransformerCounters @NotNull[] counters;
+        @NotNull
+        private final TransformerDispatchIndex dispatchIndex;
+        @NotNull
+        private final String internalName;
+        private final boolean widenerTarget;
+
+        private CandidateSelection(@NotNull String internalName, @NotNull TransformerDispatchIndex dispatchIndex, ASMTransformer @NotNull[] candidates,
+                TransformerCounters @NotNull[] counters, int count, boolean widenerTarget) {
+            this.internalName = internalName;
+            this.dispatchIndex = dispatchIndex;
+            this.candidates = candidates;
+            this.counters = counters;
+            this.count = count;
+            this.widenerTarget = widenerTarget;
+        }
+
+        private boolean isEmpty() {
+            return this.count == 0 && !this.widenerTarget;
+        }
+
+        private boolean isThreadSafe() {
+            for (int i = 0; i < this.count; i++) {
+                if (!this.candidates[i].isThreadSafe()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     @Internal
+    /**
+     * A definition of a class that is in progress, see {@link MinestomRootClassLoader#transformAndDefine(HierarchyClassLoader, String, ByteBuffer, URL, URI)}.
+     */
+    private static final class PendingDefinition {
+        @NotNull
+        private final CompletableFuture<Class<?>> future = new CompletableFuture<>();
+        @NotNull
+        private final HierarchyClassLoader loader;
+        @NotNull
+        private final Thread owner = Thread.currentThread();
+
+        private PendingDefinition(@NotNull HierarchyClassLoader loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * Waits for the definition to complete, regardless of whether it succeeded.
+         *
+         * @return The defined class, or <code>null</code> if the class could not be defined.
+         */
+        @Nullable
+        private Class<?> await() {
+            try {
+                return this.future.join();
+            } catch (CompletionException e) {
+                return null;
+            }
+        }
+
+        @NotNull
+        private Class<?> awaitOrThrow(@NotNull String name) {
+            try {
+                return Objects.requireNonNull(this.future.join());
+            } catch (CompletionException e) {
+                NoClassDefFoundError error = new NoClassDefFoundError("Class " + name + " could not be defined by thread " + this.owner.getName());
+                error.initCause(e.getCause());
+                throw error;
+            }
+        }
+    }
+
     public static final boolean DEBUG = Boolean.getBoolean("classloader.debug");
     private static final boolean DUMP = MinestomRootClassLoader.DEBUG || Boolean.getBoolean("classloader.dump");
 
@@ -76,7 +165,8 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
      * Used to let ASM find out common super types, without actually committing to loading them
      * Otherwise ASM would accidentally load classes we might want to modify.
      */
-    private final URLClassLoader asmClassLoader;
+    @NotNull
+    private final ClassHierarchyIndex hierarchyIndex = new ClassHierarchyIndex(this);
 
     @NotNull
     private final Map<String, URI> classCodeSourceURIs = new ConcurrentHashMap<>();
@@ -84,12 +174,151 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
     @NotNull
     private final Collection<ASMTransformer> modifiers = new OrderedCollection<>();
 
+    /**
+     * Immutable snapshot of {@link #modifiers} that is used while transforming classes, indexed
+     * by the {@link ASMTransformer#getDeclaredTargets() declared targets} of the transformers.
+     * The snapshot is replaced whenever the transformer pool changes (which must only happen while
+     * holding the monitor of {@link #modifiers}), which means that transforming threads never need
+     * to lock the transformer pool.
+     */
+    @NotNull
+    private volatile TransformerDispatchIndex transformerChain = TransformerDispatchIndex.EMPTY;
+
+    /**
+     * Lock that is held while invoking transformers that are not {@link ASMTransformer#isThreadSafe() thread-safe}.
+     * The lock is shared between all such transformers as transformers may load (and thus transform) other classes,
+     * which would otherwise be prone to lock-ordering deadlocks.
+     */
+    @NotNull
+    private final ReentrantLock serialTransformerLock = new ReentrantLock();
+    @NotNull
+    private final LongAdder serialTransformerAcquisitions = new LongAdder();
+    @NotNull
+    private final LongAdder serialTransformerContentions = new LongAdder();
+    @NotNull
+    private final LongAdder serialTransformerWaitNanos = new LongAdder();
+    @NotNull
+    private final AtomicInteger activeTransformations = new AtomicInteger();
+    /**
+     * The definitions of classes by this classloader or any of it's children that are in progress, keyed by the binary name of the class.
+     */
+    @NotNull
+    private final ConcurrentHashMap<String, PendingDefinition> pendingDefinitions = new ConcurrentHashMap<>();
+    /**
+     * The internal names of the classes whose superclass and interfaces are loaded by the current thread, which breaks
+     * the recursion caused by circular class hierarchies.
+     */
+    @NotNull
+    private final ThreadLocal<Set<String>> superTypeLoads = Objects.requireNonNull(ThreadLocal.withInitial(HashSet::new));
+    @NotNull
+    private final AtomicInteger peakActiveTransformations = new AtomicInteger();
+
+    @Nullable
+    private volatile TransformedClassCache transformedClassCache;
+
+    @Nullable
+    private volatile ClassBake classBake;
+
+    @Nullable
+    private volatile ClassLoadTrace classLoadTrace;
+
+    @NotNull
+    private final ClassPreloader classPreloader = new ClassPreloader(this);
+
+    /**
+     * Counters of other components that are reported through {@link #getTransformationStatistics()}.
+     */
+    @NotNull
+    private final Map<String, LongSupplier> statisticsCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Statistics about all transformers that were registered at any point in time.
+     * Only updated while holding the monitor of {@link #modifiers}.
+     */
+    @NotNull
+    private final Map<ASMTransformer, TransformerCounters> transformerCounters = new ConcurrentHashMap<>();
+    @NotNull
+    private final LongAdder parseCount = new LongAdder();
+    @NotNull
+    private final LongAdder parseNanos = new LongAdder();
+    @NotNull
+    private final LongAdder writeCount = new LongAdder();
+    @NotNull
+    private final LongAdder writeNanos = new LongAdder();
+    @NotNull
+    private final LongAdder defineCount = new LongAdder();
+    @NotNull
+    private final LongAdder defineNanos = new LongAdder();
+
+    /**
+     * Index of the resources provided by this classloader and it's children (and their children).
+     */
+    @NotNull
+    final HierarchyResourceIndex resourceIndex = new HierarchyResourceIndex();
+
+    /**
+     * Exact set of classes that could recently not be found by {@link #loadClass(String, boolean)}, neither within the
+     * hierarchy nor by the parent classloader. Forgotten whenever the hierarchy changes.
+     */
+    @NotNull
+    private final NegativeLookupCache missingClasses = new NegativeLookupCache();
+
+    {
+        // Only the exact set of recent misses is of use, as the classes of the parent classloader cannot be listed
+        this.missingClasses.markIncomplete();
+    }
+
+    /**
+     * Marker for packages owned by the {@link JavaInterop#getPlatformClassLoader() platform classloader}.
+     */
+    @NotNull
+    private static final Object PLATFORM_OWNER = new Object();
+
+    /**
+     * Marker for packages that are not owned by the platform classloader nor by a specific extension classloader,
+     * i.e. packages owned by this classloader or (in case of protected packages) it's parent.
+     */
+    @NotNull
+    private static final Object HIERARCHY_OWNER = new Object();
+
+    /**
+     * The owner of each package that a class was loaded from through {@link #loadClass(String, boolean)}, which is either
+     * {@link #PLATFORM_OWNER}, {@link #HIERARCHY_OWNER} or the {@link MinestomExtensionClassLoader} that defined the class.
+     * Used to skip probing the platform classloader for classes that are known to not be platform classes and to directly
+     * delegate to the classloader of an extension. As packages may be split, an owner is only treated as a hint: An extension
+     * is only asked directly if the {@link #resourceIndex resource index} knows it to be the sole provider of the class,
+     * otherwise the regular lookup following the {@link #getSearchOrder() search order} is used.
+     */
+    @NotNull
+    private final Map<String, Object> packageOwners = new ConcurrentHashMap<>();
+
+    /**
+     * The classloaders that defined a class, keyed by the binary name of the class. Only includes classes
+     * defined by this classloader or any of it's children, which excludes classes loaded by the parent classloader.
+     */
+    @NotNull
+    private final Map<String, ClassLoader> definedClasses = new ConcurrentHashMap<>();
+
+    /**
+     * Binary names of classes that should not be loaded as they are known to be invalid, as reported by {@link #registerInvalidClass(String)}.
+     */
+    @NotNull
+    private final Set<String> invalidClasses = ConcurrentHashMap.newKeySet();
+
     /**
      * Classes that cannot be loaded/modified by this classloader.
      * Will go through parent class loader
      */
     private final Set<String> protectedClasses = ConcurrentHashMap.newKeySet();
-    public final Set<String> protectedPackages = ConcurrentHashMap.newKeySet();
+    @NotNull
+    private final ProtectedPrefixSet protectedPackagePrefixes = new ProtectedPrefixSet();
+
+    /**
+     * Prefixes of the binary names of classes that cannot be loaded/modified by this classloader.
+     * Despite the name, the prefixes are not required to be package names. Modifications to this set
+     * are immediately visible to {@link #isProtected(String)}.
+     */
+    public final Set<String> protectedPackages = this.protectedPackagePrefixes;
 
     @Deprecated
     @ScheduledForRemoval(inVersion = "5.0.0")
@@ -114,7 +343,6 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
 
     private MinestomRootClassLoader(ClassLoader parent) {
         super("Starloader Root ClassLoader", new URL[0], parent);
-        this.asmClassLoader = this.newChild();
     }
 
     public static MinestomRootClassLoader getInstance() {
@@ -128,6 +356,120 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
         return MinestomRootClassLoader.INSTANCE;
     }
 
+    @NotNull
+    private static String getPackageName(@NotNull String name) {
+        int lastDot = name.lastIndexOf('.');
+        return lastDot == -1 ? "" : name.substring(0, lastDot);
+    }
+
+    /**
+     * Checks whether neither this classloader nor any of it's children provide a class file for the given class,
+     * without probing children which are not known to provide the class.
+     *
+     * @param name The binary name of the class
+     * @return True if the class is known to be absent, false if it is present or might be present.
+     */
+    private boolean isAbsentFromHierarchy(@NotNull String name) {
+        return this.findResource(name.replace('.', '/') + ".class") == null
+                && this.resourceIndex.isComplete()
+                && this.resourceIndex.findClassOwner(this, name) == null;
+    }
+
+    @Override
+    void collectNegativeLookupStatistics(@NotNull Map<String, Long> out) {
+        super.collectNegativeLookupStatistics(out);
+        this.missingClasses.collectStatistics("negativeClassLookup", out);
+    }
+
+    @Override
+    @NotNull
+    HierarchyResourceIndex getResourceIndex() {
+        return this.resourceIndex;
+    }
+
+    @Override
+    void onHierarchyChanged() {
+        this.missingClasses.clearRecentMisses();
+    }
+
+    /**
+     * Forgets all packages that are owned by the given classloader, meaning that the next class of the package
+     * is looked up from scratch. Called when the classloader is closed.
+     *
+     * @param loader The classloader that no longer owns any packages
+     */
+    void forgetPackageOwner(@NotNull MinestomExtensionClassLoader loader) {
+        this.packageOwners.values().removeIf((owner) -> owner == loader);
+    }
+
+    /**
+     * Forgets all classes that were defined by the given classloader. Called when the classloader is closed.
+     *
+     * @param loader The classloader whose classes are no longer loaded
+     */
+    void forgetDefinedClasses(@NotNull MinestomExtensionClassLoader loader) {
+        this.definedClasses.values().removeIf((definingLoader) -> definingLoader == loader);
+    }
+
+    /**
+     * Obtains a class that was defined by this classloader or any of it's children, without loading it.
+     *
+     * @param name The binary name of the class
+     * @return The defined class, or <code>null</code> if no such class was defined.
+     */
+    @Nullable
+    Class<?> findClassInHierarchy(@NotNull String name) {
+        ClassLoader definingLoader = this.definedClasses.get(name);
+        if (definingLoader instanceof HierarchyClassLoader) {
+            return ((HierarchyClassLoader) definingLoader).findDefinedClass(name);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a class was defined by this classloader or any of it's children.
+     * Classes that were loaded by the parent classloader (such as {@link #isProtected(String) protected} classes)
+     * or by the classloader of an extension that has since been closed are not considered to be defined.
+     *
+     * @param name The binary name of the class
+     * @return True if the class was defined, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public boolean isClassDefined(@NotNull String name) {
+        return this.definedClasses.containsKey(name);
+    }
+
+    /**
+     * Checks whether a class was {@link #registerInvalidClass(String) registered as invalid}.
+     *
+     * @param name The binary name of the class
+     * @return True if the class is known to be invalid, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public boolean isInvalidClass(@NotNull String name) {
+        return this.invalidClasses.contains(name);
+    }
+
+    /**
+     * Registers a class as invalid, causing any further attempt of loading the class through this classloader
+     * or any of it's children to fail early. Used by mixin to signal that a class cannot be transformed correctly,
+     * meaning that a load attempt is doomed to fail. Has no effect on classes that were already loaded.
+     *
+     * @param name The binary name of the class
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @AvailableSince("4.0.0-a20261018")
+    public void registerInvalidClass(@NotNull String name) {
+        this.invalidClasses.add(name);
+    }
+
     @Override
     public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
         Class<?> loadedClass = this.findLoadedClass(Objects.requireNonNull(name, "name must not be null"));
@@ -135,269 +477,956 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
             return loadedClass;
         }
 
+        // No class loading lock is held while looking up and transforming the class, see #transformAndDefine.
+        return this.loadClass0(name, resolve);
+    }
+
+    private Class<?> loadClass0(@NotNull String name, boolean resolve) throws ClassNotFoundException {
+        if (this.invalidClasses.contains(name)) {
+            throw new ClassNotFoundException("Class " + name + " was registered as invalid and thus cannot be loaded.");
+        }
+
+        NegativeLookupCache missingClasses = this.missingClasses;
+        if (missingClasses.isAbsent(name)) {
+            throw new ClassNotFoundException(name);
+        }
+        int missingGeneration = missingClasses.getGeneration();
+
+        String packageName = MinestomRootClassLoader.getPackageName(name);
+        Object owner = this.packageOwners.get(packageName);
+        ClassLookupFailures failures = new ClassLookupFailures();
+
+        if (owner instanceof MinestomExtensionClassLoader) {
+            // Packages may be split or shaded into several extensions, in which case the search order decides which extension supplies the class.
+            // Thus the owner can only be asked directly if it is the only classloader of the hierarchy that provides the class.
+            if (this.resourceIndex.isComplete() && this.resourceIndex.getSoleProvider(name.replace('.', '/') + ".class") == owner) {
+                Class<?> loaded = ((MinestomExtensionClassLoader) owner).findClassAsChild(name, resolve, failures);
+                if (loaded != null) {
+                    return loaded;
+                }
+            }
+            // Fall back to the regular lookup, which follows the search order
+        } else if (owner == null || owner == MinestomRootClassLoader.PLATFORM_OWNER) {
+            // we do not load system classes by ourselves
+            ClassLoader loader = JavaInterop.getPlatformClassLoader();
+            if (loader != null) {
+                try {
+                    Class<?> systemClass = loader.loadClass(name);
+                    if (systemClass.getClassLoader() == loader) {
+                        MinestomRootClassLoader.LOGGER.trace("Loading system class: {}", systemClass);
+                        this.packageOwners.putIfAbsent(packageName, MinestomRootClassLoader.PLATFORM_OWNER);
+                        return systemClass;
+                    }
+                    // The class was loaded by a different classloader. Presuming the class to be on the boot module layer - ignoring it.
+                } catch (ClassNotFoundException e) {
+                    // Not a platform class
+                }
+            }
+        }
+
+        Class<?> loaded;
+        if (this.isProtected(name)) {
+            MinestomRootClassLoader.LOGGER.trace("Protected: {}", name);
+            loaded = null;
+        } else {
+            loaded = this.define(name, resolve, failures);
+            if (loaded == null && !failures.isEmpty()) {
+                MinestomRootClassLoader.LOGGER.trace("Failed to load class \"{}\", resorting to parent loader. Code modifications forbidden.", name);
+            }
+        }
+
+        if (loaded == null) {
+            // fail to load class, let parent load
+            // this forbids code modification, but at least it will load
+            try {
+                loaded = super.loadClass(name, resolve);
+            } catch (ClassNotFoundException cnfe) {
+                failures.suppressInto(cnfe);
+                if (this.isAbsentFromHierarchy(name)) {
+                    missingClasses.recordMiss(name, missingGeneration);
+                }
+                throw cnfe;
+            }
+        }
+
+        ClassLoader definingLoader = loaded.getClassLoader();
+        this.packageOwners.putIfAbsent(packageName, definingLoader instanceof MinestomExtensionClassLoader ? definingLoader : MinestomRootClassLoader.HIERARCHY_OWNER);
+        return loaded;
+    }
+
+    @Contract(pure = true)
+    @AvailableSince(value = "4.0.0-a20241104.1") // Note: protected since 4.0.0-a20240512, was private before that.
+    public boolean isProtected(String name) {
+        return this.protectedClasses.contains(name) || this.protectedPackagePrefixes.isPrefixed(name);
+    }
+
+    /**
+     * Protects a single class from being loaded or modified by this classloader, causing it to be loaded
+     * by the parent classloader instead. Has no effect on classes that were already loaded.
+     *
+     * @param name The binary name of the class
+     * @return True if the class was not protected by name before, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    @Contract(mutates = "this")
+    public boolean addProtectedClass(@NotNull String name) {
+        return this.protectedClasses.add(name);
+    }
+
+    /**
+     * Protects all classes whose binary name starts with the given prefix from being loaded or modified by this classloader,
+     * causing them to be loaded by the parent classloader instead. Has no effect on classes that were already loaded.
+     * Equivalent to adding the prefix to {@link #protectedPackages}.
+     *
+     * @param prefix The prefix, usually the name of a package
+     * @return True if the prefix was not present before, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    @Contract(mutates = "this")
+    public boolean addProtectedPackage(@NotNull String prefix) {
+        return this.protectedPackagePrefixes.add(prefix);
+    }
+
+    /**
+     * Reverts {@link #addProtectedClass(String)}. The class may still be protected by a package prefix.
+     *
+     * @param name The binary name of the class
+     * @return True if the class was protected by name before, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    @Contract(mutates = "this")
+    public boolean removeProtectedClass(@NotNull String name) {
+        return this.protectedClasses.remove(name);
+    }
+
+    /**
+     * Reverts {@link #addProtectedPackage(String)}. Equivalent to removing the prefix from {@link #protectedPackages}.
+     *
+     * @param prefix The prefix, usually the name of a package
+     * @return True if the prefix was present before, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @AvailableSince("4.0.0-a20261018")
+    @Contract(mutates = "this")
+    public boolean removeProtectedPackage(@NotNull String prefix) {
+        return this.protectedPackagePrefixes.remove(prefix);
+    }
+
+    @Override
+    @Contract(pure = true)
+    @AvailableSince(value = "4.0.0-a20240730")
+    public boolean isThreadLoggingClassloadingFailures() {
+        return MinestomRootClassLoader.LOG_CLASSLOADING_FAILURES.get();
+    }
+
+    /**
+     * Defines a class from the URLs of this classloader, or if the class is not present in them, looks up the class in the children.
+     *
+     * @param name The binary name of the class
+     * @param resolve Whether to resolve the class
+     * @param failures The failures that occur while loading a class that is present
+     * @return The loaded class, or <code>null</code> if the class is not present or could not be loaded.
+     */
+    @Nullable
+    private Class<?> define(@NotNull String name, boolean resolve, @NotNull ClassLookupFailures failures) {
+        RawClassData rawClass;
+        try {
+            rawClass = this.readClassBytes(name);
+        } catch (Throwable t) {
+            failures.add(t);
+            rawClass = null;
+        }
+
+        if (rawClass != null) {
+            try {
+                URL url = rawClass.getSource();
+                Class<?> defined = this.transformAndDefine(this, name, rawClass.getBuffer(), url, Utils.toCodeSourceURI(url, name));
+                MinestomRootClassLoader.LOGGER.trace("Loaded with code modifiers: {}", name);
+                if (resolve) {
+                    resolveClass(defined);
+                }
+                return defined;
+            } catch (Throwable t) {
+                // Well we did hit the right classloader (so no need to check children), but it did not produce the right output
+                failures.add(t);
+                return null;
+            }
+        }
+
+        // Classes generated at runtime have no class file, but may be part of the bake
+        ClassBake bake = this.classBake;
+        if (bake != null && !bake.isRecording() && bake.isGenerated(name.replace('.', '/'))) {
+            byte[] generated = bake.lookupGenerated(name.replace('.', '/'));
+            if (generated != null) {
+                try {
+                    Class<?> defined = this.transformAndDefine(this, name, ByteBuffer.wrap(generated), null, null);
+                    if (resolve) {
+                        resolveClass(defined);
+                    }
+                    return defined;
+                } catch (Throwable t) {
+                    failures.add(t);
+                    return null;
+                }
+            }
+        }
+
+        // could not load inside this classloader, attempt with children
+        if (this.resourceIndex.isComplete()) {
+            MinestomExtensionClassLoader owner = this.resourceIndex.findClassOwner(this, name);
+            if (owner == null) {
+                return null;
+            }
+            Class<?> defined = owner.defineOwnClass(name, resolve, failures);
+            if (defined != null) {
+                MinestomRootClassLoader.LOGGER.trace("Loaded from child {}: {}", owner, name);
+                return defined;
+            }
+            // The class is present but could not be loaded, which is why the other children need to be probed
+        }
+        // Each descendant is only probed once, even if it is the child of multiple classloaders
+        for (MinestomExtensionClassLoader subloader : this.getSearchOrder()) {
+            Class<?> defined = subloader.defineOwnClass(name, resolve, failures);
+            if (defined != null) {
+                MinestomRootClassLoader.LOGGER.trace("Loaded from child {}: {}", subloader, name);
+                return defined;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads and possibly transforms class bytecode corresponding to the given binary name.
+     *
+     * @param name
+     * @param transform
+     * @return The transformed bytes attached with the URL the bytes were loaded from.
+     * @throws IOException
+     * @throws ClassNotFoundException
+     * @since 3.1.0
+     */
+    public RawClassData loadClassBytes(String name, boolean transform) throws IOException, ClassNotFoundException {
+        if (name == null) {
+            throw new ClassNotFoundException("Name may not be null.");
+        }
+        RawClassData data = this.findClassBytes(name, transform);
+        if (data == null) {
+            throw new ClassNotFoundException("Could not find resource " + name.replace(".", "/") + ".class");
+        }
+        return data;
+    }
+
+    /**
+     * Loads and possibly transforms class bytecode corresponding to the given binary name.
+     * Unlike {@link #loadClassBytes(String, boolean)}, a missing class is not signalled by throwing an exception.
+     *
+     * @param name The binary name of the class
+     * @param transform Whether to transform the bytecode
+     * @return The transformed bytes attached with the URL the bytes were loaded from, or <code>null</code> if the class does not exist.
+     * @throws IOException If the bytecode could not be read
+     */
+    @Nullable
+    RawClassData findClassBytes(@NotNull String name, boolean transform) throws IOException {
+        RawClassData data = this.readClassBytes(name);
+        if (data == null) {
+            return null;
+        }
+        URL url = data.getSource();
+        ByteBuffer transformedBytes;
+        if (transform) {
+            transformedBytes = this.transformBuffer(data.getBuffer(), name, Utils.toCodeSourceURI(url, name));
+        } else {
+            transformedBytes = data.getBuffer();
+        }
+
+        if (MinestomRootClassLoader.DUMP) {
+            String path = name.replace(".", "/") + ".class";
+            Path parent = Paths.get("classes", path).getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(Paths.get("classes", path), RawClassData.toByteArray(transformedBytes));
+        }
+
+        return new RawClassData(url, transformedBytes);
+    }
+
+    /**
+     * Reads the untransformed bytecode corresponding to the given binary name from the URLs of this classloader.
+     *
+     * @param name The binary name of the class
+     * @return The bytes attached with the URL the bytes were loaded from, or <code>null</code> if the class does not exist.
+     * @throws IOException If the bytecode could not be read
+     */
+    @Nullable
+    private RawClassData readClassBytes(@NotNull String name) throws IOException {
+        String path = name.replace(".", "/") + ".class";
+        RawClassData stored = this.readStoredResource(path);
+        URL url;
+        ByteBuffer originalBytes;
+        if (stored != null) {
+            url = stored.getSource();
+            originalBytes = stored.getBuffer();
+        } else {
+            url = this.findResource(path);
+            InputStream input;
+            if (url == null) {
+                input = this.getResourceAsStream(name);
+            } else {
+                input = url.openStream();
+            }
+            if (input == null) {
+                return null;
+            }
+            originalBytes = ByteBuffer.wrap(JavaInterop.readAllBytes(input));
+            input.close();
+        }
+        return new RawClassData(url, originalBytes);
+    }
+
+    @Deprecated
+    public byte[] loadBytesWithChildren(String name, boolean transform) throws IOException, ClassNotFoundException {
+        if (name == null) {
+            throw new ClassNotFoundException();
+        }
+        String path = name.replace(".", "/") + ".class";
+        InputStream input = this.getResourceAsStreamWithChildren(path);
+        if (input == null) {
+            throw new ClassNotFoundException("Could not find resource " + path);
+        }
+        byte[] originalBytes = JavaInterop.readAllBytes(input);
+        input.close();
+        if (transform) {
+            return this.transformBytes(originalBytes, name, null);
+        }
+        return originalBytes;
+    }
+
+    /**
+     * Transforms class bytecode ahead of demand, as done by the {@link ClassPreloader}. As the result may be discarded,
+     * classes are only transformed if all interested transformers are {@link ASMTransformer#isThreadSafe() thread-safe}.
+     * Transformers that are not thread-safe (most notably mixin) tend to have side effects beyond the transformed class,
+     * such as recording applied mixins or loading further classes while holding the serial transformer lock.
+     *
+     * @param classBytecode The untransformed bytecode
+     * @param qualifiedName The binary name of the class
+     * @param codeSourceURI The URI of the code source of the class, if known
+     * @return The transformed bytecode, or <code>null</code> if the class should be transformed on demand instead.
+     */
+    byte @Nullable[] transformBytesSpeculatively(byte @NotNull[] classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI) {
+        if (this.isProtected(qualifiedName) || this.classBake != null) {
+            return null;
+        }
+        CandidateSelection selection = this.selectCandidates(qualifiedName.replace('.', '/'), qualifiedName, codeSourceURI);
+        if (!selection.isThreadSafe()) {
+            return null;
+        }
+        return this.transformBytes0(classBytecode, qualifiedName, codeSourceURI, selection);
+    }
+
+    byte @NotNull[] transformBytes(byte @NotNull[] classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI) {
+        return this.transformBytes(classBytecode, qualifiedName, codeSourceURI, null);
+    }
+
+    private byte @NotNull[] transformBytes(byte @NotNull[] classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI, @Nullable CandidateSelection preselected) {
+        if (!this.isProtected(qualifiedName)) {
+            ClassBake bake = this.classBake;
+            if (bake != null && !bake.isRecording()) {
+                byte[] baked = bake.lookup(qualifiedName.replace('.', '/'), classBytecode);
+                if (baked != null) {
+                    return baked;
+                }
+            }
+
+            this.recordActiveTransformation();
+            try {
+                byte[] transformed = this.classPreloader.take(qualifiedName.replace('.', '/'), classBytecode);
+                if (transformed == null) {
+                    transformed = this.transformBytes0(classBytecode, qualifiedName, codeSourceURI, preselected);
+                }
+                if (bake != null && bake.isRecording()) {
+                    bake.record(qualifiedName.replace('.', '/'), classBytecode, transformed);
+                }
+                return transformed;
+            } finally {
+                this.activeTransformations.decrementAndGet();
+            }
+        }
+        return classBytecode;
+    }
+
+    /**
+     * Marks the start of a transformation and updates {@link #peakActiveTransformations} accordingly.
+     * The caller must decrement {@link #activeTransformations} once the transformation is done.
+     */
+    private void recordActiveTransformation() {
+        int active = this.activeTransformations.incrementAndGet();
+        int peak = this.peakActiveTransformations.get();
+        while (active > peak) {
+            if (this.peakActiveTransformations.compareAndSet(peak, active)) {
+                break;
+            }
+            peak = this.peakActiveTransformations.get();
+        }
+    }
+
+    @NotNull
+    private CandidateSelection selectCandidates(@NotNull String internalName, @NotNull String qualifiedName, @Nullable URI codeSourceURI) {
+        TransformerDispatchIndex dispatchIndex = this.transformerChain;
+        ASMTransformer[] transformers = dispatchIndex.transformers;
+        ASMTransformer[] candidates = new ASMTransformer[transformers.length];
+        TransformerCounters[] candidateCounters = new TransformerCounters[transformers.length];
+        int candidateCount = 0;
+        boolean widenerTarget;
+        boolean serial = false;
+        try {
+            @SuppressWarnings("deprecation")
+            boolean hack = this.widener.isTarget(internalName, true);
+            widenerTarget = hack;
+            boolean[] selected = dispatchIndex.select(internalName);
+            for (int i = 0; i < transformers.length; i++) {
+                if (!selected[i]) {
+                    continue;
+                }
+                ASMTransformer transformer = transformers[i];
+                if (MinestomRootClassLoader.DEBUG) {
+                    MinestomRootClassLoader.LOGGER.info("{} could be able to transform {}", transformer.getClass().getSimpleName(), internalName);
+                }
+                TransformerCounters counters = dispatchIndex.counters[i];
+                counters.validTargetCalls.increment();
+                if (!serial && !transformer.isThreadSafe()) {
+                    // Transformers that are not thread-safe may not be queried concurrently either
+                    this.lockSerialTransformers();
+                    serial = true;
+                }
+                if (transformer instanceof CodeTransformer ? ((CodeTransformer) transformer).isValidTarget(internalName, codeSourceURI) : transformer.isValidTarget(internalName)) {
+                    counters.acceptedClasses.increment();
+                    candidateCounters[candidateCount] = counters;
+                    candidates[candidateCount++] = transformer;
+                }
+            }
+        } catch (Throwable t) {
+            throw this.transformationFailure(qualifiedName, t);
+        } finally {
+            if (serial) {
+                this.serialTransformerLock.unlock();
+            }
+        }
+        return new CandidateSelection(internalName, dispatchIndex, candidates, candidateCounters, candidateCount, widenerTarget);
+    }
+
+    /**
+     * Transforms class bytecode that is held in a buffer. Should no transformer be interested in the class,
+     * the buffer is returned as-is without ever copying the bytecode into an array.
+     *
+     * @param classBytecode The buffer whose remaining bytes are the untransformed bytecode
+     * @param qualifiedName The binary name of the class
+     * @param codeSourceURI The URI of the code source of the class, if known
+     * @return A buffer whose remaining bytes are the transformed bytecode
+     */
+    @NotNull
+    ByteBuffer transformBuffer(@NotNull ByteBuffer classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI) {
+        if (this.isProtected(qualifiedName)) {
+            return classBytecode;
+        }
+        // The name of the class is assumed to match the requested name. Should that not be the case, the class will be rejected by the JVM anyways.
+        String internalName = qualifiedName.replace('.', '/');
+        ByteBuffer baked = this.lookupBaked(internalName, classBytecode);
+        if (baked != null) {
+            return baked;
+        }
+        return this.transformBuffer(classBytecode, qualifiedName, codeSourceURI, this.selectCandidates(internalName, qualifiedName, codeSourceURI));
+    }
+
+    /**
+     * Looks up the baked bytecode of a class if a bake that was loaded from disk is in use.
+     *
+     * @param internalName The internal name of the class
+     * @param classBytecode The buffer whose remaining bytes are the untransformed bytecode
+     * @return A buffer whose remaining bytes are the baked bytecode, or <code>null</code> if the class is not baked.
+     */
+    @Nullable
+    private ByteBuffer lookupBaked(@NotNull String internalName, @NotNull ByteBuffer classBytecode) {
+        ClassBake bake = this.classBake;
+        if (bake == null || bake.isRecording()) {
+            return null;
+        }
+        return bake.lookup(internalName, classBytecode);
+    }
+
+    @NotNull
+    private ByteBuffer transformBuffer(@NotNull ByteBuffer classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI, @NotNull CandidateSelection selection) {
+        String internalName = selection.internalName;
+        ClassBake bake = this.classBake;
+        if ((bake != null && bake.isRecording()) || this.classPreloader.isPreloaded(internalName)) {
+            // Both need the untransformed bytecode
+            return ByteBuffer.wrap(this.transformBytes(RawClassData.toByteArray(classBytecode), qualifiedName, codeSourceURI, selection));
+        }
+
+        if (selection.isEmpty()) {
+            if (codeSourceURI != null) {
+                this.classCodeSourceURIs.putIfAbsent(internalName, codeSourceURI);
+            }
+            return classBytecode;
+        }
+
+        this.recordActiveTransformation();
+        try {
+            return ByteBuffer.wrap(this.transformBytes0(RawClassData.toByteArray(classBytecode), qualifiedName, codeSourceURI, selection));
+        } finally {
+            this.activeTransformations.decrementAndGet();
+        }
+    }
+
+    private byte @NotNull[] transformBytes0(byte @NotNull[] classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI, @Nullable CandidateSelection preselected) {
+        // Constructing a ClassReader only scans the constant pool, so obtaining the class name is cheap
+        ClassReader reader = new ClassReader(classBytecode);
+        String internalName = reader.getClassName();
+        if (internalName == null) {
+            throw new NullPointerException();
+        }
+
+        if (codeSourceURI != null) {
+            this.classCodeSourceURIs.putIfAbsent(internalName, codeSourceURI);
+        }
+
+        // Only build a ClassNode if any transformer is interested in the class
+        CandidateSelection selection = preselected;
+        if (selection == null || !selection.internalName.equals(internalName) || selection.dispatchIndex != this.transformerChain) {
+            selection = this.selectCandidates(internalName, qualifiedName, codeSourceURI);
+        }
+        if (selection.isEmpty()) {
+            return classBytecode;
+        }
+        ASMTransformer[] candidates = selection.candidates;
+        TransformerCounters[] candidateCounters = selection.counters;
+        int candidateCount = selection.count;
+        boolean widenerTarget = selection.widenerTarget;
+
+        // Transformers that are not thread-safe (most notably mixin) tend to have side effects beyond the transformed class, such as
+        // recording applied mixins or generating further classes, which would not happen when the class is served from the cache
+        TransformedClassCache cache = selection.isThreadSafe() ? this.transformedClassCache : null;
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = cache.getKey(internalName, codeSourceURI, classBytecode);
+            byte[] cached = cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ClassNode node = new ClassNode();
+        ChangeReport report = new ChangeReport();
+        boolean modified = false;
+        boolean[] modifiedBy = new boolean[candidateCount];
+        int originalLength = classBytecode.length;
+
+        long parseStart = System.nanoTime();
+        reader.accept(node, 0);
+        this.parseNanos.add(System.nanoTime() - parseStart);
+        this.parseCount.increment();
+
+        try {
+            if (widenerTarget) {
+                @SuppressWarnings("deprecation")
+                boolean hack = this.widener.apply(node, true);
+                modified = hack;
+            }
+            for (int i = 0; i < candidateCount; i++) {
+                ASMTransformer transformer = candidates[i];
+                if (this.invokeTransformer(transformer, candidateCounters[i], node, codeSourceURI, report)) {
+                    candidateCounters[i].modifiedClasses.increment();
+                    modifiedBy[i] = true;
+                    if (MinestomRootClassLoader.DEBUG) {
+                        MinestomRootClassLoader.LOGGER.info("{} was transformed by a {}", internalName, transformer.getClass().getSimpleName());
+                    }
+                    if (!transformer.isValid()) {
+                        this.removeASMTransformer(transformer);
+                    }
+                    modified = true;
+                }
+            }
+        } catch (Throwable t) {
+            throw this.transformationFailure(qualifiedName, t);
+        }
+
         try {
-            // we do not load system classes by ourselves
-            ClassLoader loader = JavaInterop.getPlatformClassLoader();
-            if (loader != null) {
-                Class<?> systemClass = loader.loadClass(name);
-                if (systemClass.getClassLoader() != loader) {
-                    throw new ClassNotFoundException("When loading the class with a platform classloader returned by a Java 9 " + (JavaInterop.isJava9() ? "capable " : "incapable") + " JavaInterop implementation, the class was loaded by a different classloader. Presuming the class to be on the boot module layer - ignoring it.");
+            if (modified) {
+                long writeStart = System.nanoTime();
+                // Copy the constant pool and unchanged methods if all transformers reported their changes.
+                // Renaming the class or changing the class file version invalidates the copied bytecode.
+                boolean copyThrough = !report.isFullRewrite()
+                        && internalName.equals(node.name)
+                        && node.version == (reader.readUnsignedShort(4) << 16 | reader.readUnsignedShort(6));
+                ClassWriter writer = new ClassWriter(copyThrough ? reader : null, ClassWriter.COMPUTE_FRAMES) {
+                    @Override
+                    protected String getCommonSuperClass(String type1, String type2) {
+                        return MinestomRootClassLoader.this.hierarchyIndex.getCommonSuperClass(type1, type2);
+                    }
+                };
+                if (copyThrough) {
+                    reader.accept(new CopyThroughClassVisitor(writer, node, report), 0);
                 } else {
-                    MinestomRootClassLoader.LOGGER.trace("Loading system class: {}", systemClass);
-                    return systemClass;
+                    node.accept(writer);
                 }
+                classBytecode = Objects.requireNonNull(writer.toByteArray());
+                this.writeNanos.add(System.nanoTime() - writeStart);
+                this.writeCount.increment();
             }
-            throw new ClassNotFoundException("Java 9 " + (JavaInterop.isJava9() ? "capable " : "incapable") + " JavaInterop implementation refused to return the platform classloader.");
-        } catch (ClassNotFoundException e) {
+        } catch (Throwable t) {
             try {
-                if (this.isProtected(name)) {
-                    MinestomRootClassLoader.LOGGER.trace("Protected: {}", name);
-                    return super.loadClass(name, resolve);
-                }
+                StringWriter disassembledClass = new StringWriter();
+                TraceClassVisitor traceVisitor = new TraceClassVisitor(new PrintWriter(disassembledClass));
+                CheckClassAdapter checkAdapter = new CheckClassAdapter(Opcodes.ASM9, traceVisitor, true) {
+                    @Override
+                    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+                        super.visitInnerClass(name, outerName, innerName, access & ~Opcodes.ACC_SUPER);
+                    }
+                };
+                node.accept(checkAdapter);
 
-                return this.define(name, resolve);
-            } catch (Throwable ex) {
-                MinestomRootClassLoader.LOGGER.trace("Failed to load class \""+ name + "\", resorting to parent loader. Code modifications forbidden. {}", ex);
-                // fail to load class, let parent load
-                // this forbids code modification, but at least it will load
-                try {
-                    return super.loadClass(name, resolve);
-                } catch (ClassNotFoundException cnfe) {
-                    cnfe.addSuppressed(ex);
-                    throw cnfe;
+                throw new RuntimeException("The class seems to be intact, but ASM does not like it anyways. In order to help on your debugging journey, take this:\n" + disassembledClass.toString());
+            } catch (Throwable t0) {
+                if (t0 instanceof ThreadDeath) {
+                    throw (ThreadDeath) t0;
+                } else if (t0 instanceof OutOfMemoryError) {
+                    throw (OutOfMemoryError) t0;
                 }
+                t.addSuppressed(t0);
+            }
+
+            if (this.isThreadLoggingClassloadingFailures()) {
+                MinestomRootClassLoader.LOGGER.error("Unable to write ASM Classnode to bytecode for class '{}' (bork transformer?)", qualifiedName, t);
+            }
+
+            if (t instanceof ThreadDeath) {
+                throw (ThreadDeath) t;
+            } else if (t instanceof OutOfMemoryError) {
+                throw (OutOfMemoryError) t;
             }
+
+            throw new RuntimeException("Unable to write ASM Classnode to bytecode for class " + qualifiedName, t);
         }
-    }
 
-    @Contract(pure = true)
-    @AvailableSince(value = "4.0.0-a20241104.1") // Note: protected since 4.0.0-a20240512, was private before that.
-    public boolean isProtected(String name) {
-        if (!this.protectedClasses.contains(name)) {
-            for (String start : this.protectedPackages) {
-                if (name.startsWith(start)) {
-                    return true;
-                }
+        for (int i = 0; i < candidateCount; i++) {
+            if (modifiedBy[i]) {
+                candidateCounters[i].bytesIn.add(originalLength);
+                candidateCounters[i].bytesOut.add(classBytecode.length);
             }
-            return false;
         }
-        return true;
+
+        if (cache != null && cacheKey != null) {
+            cache.put(cacheKey, classBytecode);
+        }
+        return classBytecode;
     }
 
-    @Override
-    @Contract(pure = true)
-    @AvailableSince(value = "4.0.0-a20240730")
-    public boolean isThreadLoggingClassloadingFailures() {
-        return MinestomRootClassLoader.LOG_CLASSLOADING_FAILURES.get();
+    @NotNull
+    private RuntimeException transformationFailure(@NotNull String qualifiedName, @NotNull Throwable t) {
+        // Apparently errors would get absorbed otherwise.
+        if (this.isThreadLoggingClassloadingFailures()) {
+            MinestomRootClassLoader.LOGGER.error("Error within ASM transforming process. CLASS {} WILL NOT BE MODIFIED - THIS MAY BE LETHAL.", qualifiedName, t);
+        }
+
+        return new RuntimeException("Error within ASM transforming process for class " + qualifiedName, t);
     }
 
-    private Class<?> define(String name, boolean resolve) throws IOException, ClassNotFoundException {
+    private boolean invokeTransformer(@NotNull ASMTransformer transformer, @NotNull TransformerCounters counters, @NotNull ClassNode node, @Nullable URI codeSourceURI, @NotNull ChangeReport report) {
+        boolean serial = !transformer.isThreadSafe();
+        if (serial) {
+            this.lockSerialTransformers();
+        }
+        long start = System.nanoTime();
         try {
-            RawClassData rawClass;
-            try {
-                rawClass = loadClassBytes(name, true);
-            } catch (Throwable t) {
-                throw new ClassNotFoundException("Unable to load bytes", t);
+            if (transformer instanceof ReportingCodeTransformer) {
+                return ((ReportingCodeTransformer) transformer).transformClass(node, codeSourceURI, report);
             }
-            Class<?> defined;
-            byte[] bytes = rawClass.getBytes();
 
-            URL jarURL = rawClass.getSource();
-            if (jarURL == null) {
-                defined = defineClass(name, bytes, 0, bytes.length);
+            boolean transformed;
+            if (transformer instanceof CodeTransformer) {
+                transformed = ((CodeTransformer) transformer).transformClass(node, codeSourceURI);
             } else {
-                String path = jarURL.getPath();
-                int seperatorIndex = path.lastIndexOf('!');
-                if (seperatorIndex != -1) {
-                    jarURL = new URL(path.substring(0, seperatorIndex));
-                }
-                defined = defineClass(name, bytes, 0, bytes.length, new CodeSource(jarURL, (CodeSigner[]) null));
+                transformed = transformer.accept(node);
             }
-
-            MinestomRootClassLoader.LOGGER.trace("Loaded with code modifiers: {}", name);
-            if (resolve) {
-                resolveClass(defined);
+            if (transformed) {
+                // The transformer did not tell us which methods were changed
+                report.markFullRewrite();
             }
-            return defined;
-        } catch (LinkageError e) {
-            // Well we did hit the right classloader (so no need to check children), but it did not produce the right output
-            throw new ClassNotFoundException("Invalid bytecode for class " + name, e);
-        } catch (ClassNotFoundException e) {
-            // could not load inside this classloader, attempt with children
-            Class<?> defined = null;
-            for (MinestomExtensionClassLoader subloader : children) {
-                try {
-                    defined = subloader.loadClassAsChild(name, resolve);
-                    MinestomRootClassLoader.LOGGER.trace("Loaded from child {}: {}", subloader, name);
-                    return defined;
-                } catch (ClassNotFoundException e1) {
-                    // not found inside this child, move on to next
-                    e.addSuppressed(e1);
-                }
+            return transformed;
+        } finally {
+            counters.transformNanos.add(System.nanoTime() - start);
+            if (serial) {
+                this.serialTransformerLock.unlock();
             }
-            throw e;
         }
     }
 
+    private void lockSerialTransformers() {
+        ReentrantLock lock = this.serialTransformerLock;
+        if (!lock.tryLock()) {
+            long waitStart = System.nanoTime();
+            lock.lock();
+            this.serialTransformerContentions.increment();
+            this.serialTransformerWaitNanos.add(System.nanoTime() - waitStart);
+        }
+        this.serialTransformerAcquisitions.increment();
+    }
+
     /**
-     * Loads and possibly transforms class bytecode corresponding to the given binary name.
+     * Removes a transformer from the transformer pool, as done once a transformer is no longer {@link ASMTransformer#isValid() valid}.
      *
-     * @param name
-     * @param transform
-     * @return The transformed bytes attached with the URL the bytes were loaded from.
-     * @throws IOException
-     * @throws ClassNotFoundException
-     * @since 3.1.0
+     * @param transformer The transformer to remove
      */
-    public RawClassData loadClassBytes(String name, boolean transform) throws IOException, ClassNotFoundException {
-        if (name == null) {
-            throw new ClassNotFoundException("Name may not be null.");
-        }
-        String path = name.replace(".", "/") + ".class";
-        URL url = this.findResource(path);
-        InputStream input;
-        if (url == null) {
-            input = this.getResourceAsStream(name);
-        } else {
-            input = url.openStream();
-        }
-        if (input == null) {
-            throw new ClassNotFoundException("Could not find resource " + path);
-        }
-        byte @NotNull[] originalBytes = JavaInterop.readAllBytes(input);
-        input.close();
-        byte @NotNull[] transformedBytes;
-        if (transform) {
-            transformedBytes = this.transformBytes(originalBytes, name, Utils.toCodeSourceURI(url, name));
-        } else {
-            transformedBytes = originalBytes;
-        }
-
-        if (MinestomRootClassLoader.DUMP) {
-            Path parent = Paths.get("classes", path).getParent();
-            if (parent != null) {
-                Files.createDirectories(parent);
+    void removeASMTransformer(@NotNull ASMTransformer transformer) {
+        synchronized (this.modifiers) {
+            if (this.modifiers.remove(transformer)) {
+                this.updateTransformerChain();
             }
-            Files.write(Paths.get("classes", path), transformedBytes);
         }
+    }
 
-        return new RawClassData(url, transformedBytes);
+    private void updateTransformerChain() {
+        // Note: Iterating over an empty OrderedCollection is not possible
+        this.transformerChain = this.modifiers.isEmpty() ? TransformerDispatchIndex.EMPTY : new TransformerDispatchIndex(this.modifiers.toArray(new ASMTransformer[0]), this::getTransformerCounters);
     }
 
-    @Deprecated
-    public byte[] loadBytesWithChildren(String name, boolean transform) throws IOException, ClassNotFoundException {
-        if (name == null) {
-            throw new ClassNotFoundException();
-        }
-        String path = name.replace(".", "/") + ".class";
-        InputStream input = this.getResourceAsStreamWithChildren(path);
-        if (input == null) {
-            throw new ClassNotFoundException("Could not find resource " + path);
-        }
-        byte[] originalBytes = JavaInterop.readAllBytes(input);
-        input.close();
-        if (transform) {
-            return this.transformBytes(originalBytes, name, null);
-        }
-        return originalBytes;
+    /**
+     * Obtains how often a transformer that is not {@link ASMTransformer#isThreadSafe() thread-safe} was invoked.
+     * Such transformers are serialized through a single lock, so each invocation corresponds to an acquisition of
+     * that lock.
+     *
+     * @return The amount of times the serial transformer lock was acquired.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    @Experimental
+    public long getSerialTransformerAcquisitions() {
+        return this.serialTransformerAcquisitions.sum();
     }
 
-    synchronized byte @NotNull[] transformBytes(byte @NotNull[] classBytecode, @NotNull String qualifiedName, @Nullable URI codeSourceURI) {
-        if (!this.isProtected(qualifiedName)) {
-            ClassReader reader = new ClassReader(classBytecode);
-            ClassNode node = new ClassNode();
-            boolean modified = false;
+    /**
+     * Obtains how often a thread had to wait for another thread in order to invoke a transformer that is not
+     * {@link ASMTransformer#isThreadSafe() thread-safe}.
+     *
+     * @return The amount of contended acquisitions of the serial transformer lock.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    @Experimental
+    public long getSerialTransformerContentions() {
+        return this.serialTransformerContentions.sum();
+    }
 
-            reader.accept(node, 0);
+    /**
+     * Obtains the cumulative time in nanoseconds that threads spent waiting for other threads in order
+     * to invoke a transformer that is not {@link ASMTransformer#isThreadSafe() thread-safe}.
+     *
+     * @return The cumulative wait time on the serial transformer lock, in nanoseconds.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    @Experimental
+    public long getSerialTransformerWaitNanos() {
+        return this.serialTransformerWaitNanos.sum();
+    }
 
-            if (codeSourceURI != null) {
-                this.classCodeSourceURIs.putIfAbsent(node.name, codeSourceURI);
-            }
+    /**
+     * Obtains the highest amount of classes that were transformed at the same time by this classloader
+     * and it's children.
+     *
+     * @return The peak amount of concurrently transformed classes.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    @Experimental
+    public int getPeakConcurrentTransformations() {
+        return this.peakActiveTransformations.get();
+    }
 
-            try {
-                @SuppressWarnings("deprecation")
-                boolean hack = this.widener.apply(node, true);
-                modified = hack;
-                synchronized (this.modifiers) {
-                    Iterator<ASMTransformer> transformers = this.modifiers.iterator();
-                    while (transformers.hasNext()) {
-                        ASMTransformer transformer = transformers.next();
-                        String internalName = node.name;
-                        if (internalName == null) {
-                            throw new NullPointerException();
-                        }
-                        if (MinestomRootClassLoader.DEBUG) {
-                            MinestomRootClassLoader.LOGGER.info("{} could be able to transform {}", transformer.getClass().getSimpleName(), internalName);
-                        }
-                        if (transformer instanceof CodeTransformer ?
-                                ((CodeTransformer) transformer).isValidTarget(internalName, codeSourceURI) && ((CodeTransformer) transformer).transformClass(node, codeSourceURI)
-                                : transformer.isValidTarget(internalName) && transformer.accept(node)) {
-                            if (MinestomRootClassLoader.DEBUG) {
-                                MinestomRootClassLoader.LOGGER.info("{} was transformed by a {}", internalName, transformer.getClass().getSimpleName());
-                            }
-                            if (!transformer.isValid()) {
-                                transformers.remove();
-                            }
-                            modified = true;
-                        }
-                    }
-                }
-            } catch (Throwable t) {
-                // Apparently errors would get absorbed otherwise.
-                if (this.isThreadLoggingClassloadingFailures()) {
-                    MinestomRootClassLoader.LOGGER.error("Error within ASM transforming process. CLASS {} WILL NOT BE MODIFIED - THIS MAY BE LETHAL.", qualifiedName, t);
-                }
+    /**
+     * Obtains the bake of ahead-of-time transformed classes that is currently in use, if any.
+     *
+     * @return The current {@link ClassBake}, or <code>null</code> if no bake is used.
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public ClassBake getClassBake() {
+        return this.classBake;
+    }
 
-                throw new RuntimeException("Error within ASM transforming process for class " + qualifiedName, t);
-            }
+    /**
+     * Sets the bake of ahead-of-time transformed classes. If the bake is {@link ClassBake#isRecording() recording},
+     * the output of the transformation pipeline is recorded in the bake. Otherwise, the baked bytecode is used instead
+     * of running the transformation pipeline for all classes known to the bake.
+     *
+     * @param bake The bake to use, or <code>null</code> to not use a bake.
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @Contract(mutates = "this")
+    @AvailableSince("4.0.0-a20261018")
+    public void setClassBake(@Nullable ClassBake bake) {
+        this.classBake = bake;
+    }
 
-            try {
-                if (modified) {
-                    ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
-                        @Override
-                        protected ClassLoader getClassLoader() {
-                            return MinestomRootClassLoader.this.asmClassLoader;
-                        }
-                    };
-                    node.accept(writer);
-                    classBytecode = Objects.requireNonNull(writer.toByteArray());
-                }
-            } catch (Throwable t) {
-                try {
-                    StringWriter disassembledClass = new StringWriter();
-                    TraceClassVisitor traceVisitor = new TraceClassVisitor(new PrintWriter(disassembledClass));
-                    CheckClassAdapter checkAdapter = new CheckClassAdapter(Opcodes.ASM9, traceVisitor, true) {
-                        @Override
-                        public void visitInnerClass(String name, String outerName, String innerName, int access) {
-                            super.visitInnerClass(name, outerName, innerName, access & ~Opcodes.ACC_SUPER);
-                        }
-                    };
-                    node.accept(checkAdapter);
-
-                    throw new RuntimeException("The class seems to be intact, but ASM does not like it anyways. In order to help on your debugging journey, take this:\n" + disassembledClass.toString());
-                } catch (Throwable t0) {
-                    if (t0 instanceof ThreadDeath) {
-                        throw (ThreadDeath) t0;
-                    } else if (t0 instanceof OutOfMemoryError) {
-                        throw (OutOfMemoryError) t0;
-                    }
-                    t.addSuppressed(t0);
-                }
+    /**
+     * Obtains the trace that records the order in which classes are defined, if any.
+     *
+     * @return The current {@link ClassLoadTrace}, or <code>null</code> if class definitions are not traced.
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public ClassLoadTrace getClassLoadTrace() {
+        return this.classLoadTrace;
+    }
 
-                if (this.isThreadLoggingClassloadingFailures()) {
-                    MinestomRootClassLoader.LOGGER.error("Unable to write ASM Classnode to bytecode for class '{}' (bork transformer?)", qualifiedName, t);
-                }
+    /**
+     * Obtains the preloader that transforms classes on background threads ahead of demand.
+     * The preloader is inert until it is {@link ClassPreloader#start(int) started}.
+     *
+     * @return The {@link ClassPreloader} of this classloader
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public ClassPreloader getClassPreloader() {
+        return this.classPreloader;
+    }
 
-                if (t instanceof ThreadDeath) {
-                    throw (ThreadDeath) t;
-                } else if (t instanceof OutOfMemoryError) {
-                    throw (OutOfMemoryError) t;
-                }
+    /**
+     * Obtains the persistent cache of transformed classes that is currently in use, if any.
+     *
+     * @return The current {@link TransformedClassCache}, or <code>null</code> if transformed classes are not cached.
+     * @since 4.0.0-a20261018
+     */
+    @Nullable
+    @Internal
+    @Contract(pure = true)
+    @AvailableSince("4.0.0-a20261018")
+    public TransformedClassCache getTransformedClassCache() {
+        return this.transformedClassCache;
+    }
 
-                throw new RuntimeException("Unable to write ASM Classnode to bytecode for class " + qualifiedName, t);
-            }
+    @NotNull
+    TransformerDispatchIndex getTransformerChain() {
+        return this.transformerChain;
+    }
+
+    @NotNull
+    private TransformerCounters getTransformerCounters(@NotNull ASMTransformer transformer) {
+        return this.transformerCounters.computeIfAbsent(transformer, TransformerCounters::new);
+    }
+
+    @Override
+    @NotNull
+    @Contract(pure = true, value = "-> new")
+    @AvailableSince("4.0.0-a20261018")
+    public TransformationStatistics getTransformationStatistics() {
+        List<@NotNull TransformerStatistics> transformers = new ArrayList<>();
+        for (TransformerCounters counters : this.transformerCounters.values()) {
+            transformers.add(counters.snapshot());
         }
-        return classBytecode;
+
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("serialTransformerAcquisitions", this.getSerialTransformerAcquisitions());
+        counters.put("serialTransformerContentions", this.getSerialTransformerContentions());
+        counters.put("serialTransformerWaitNanos", this.getSerialTransformerWaitNanos());
+        counters.put("peakConcurrentTransformations", (long) this.getPeakConcurrentTransformations());
+        TransformedClassCache cache = this.transformedClassCache;
+        if (cache != null) {
+            counters.put("transformedClassCacheHits", cache.getHits());
+            counters.put("transformedClassCacheMisses", cache.getMisses());
+            counters.put("transformedClassCacheStores", cache.getStores());
+        }
+        counters.putAll(this.getNegativeLookupStatistics());
+        counters.put("preloadedClassHits", this.classPreloader.getHits());
+        counters.put("preloadedClassDiscards", this.classPreloader.getDiscarded());
+        counters.put("preloadedClassSkips", this.classPreloader.getSkipped());
+        this.statisticsCounters.forEach((name, counter) -> counters.put(name, counter.getAsLong()));
+
+        return new TransformationStatistics(transformers, this.parseCount.sum(), this.parseNanos.sum(), this.writeCount.sum(),
+                this.writeNanos.sum(), this.defineCount.sum(), this.defineNanos.sum(), counters);
+    }
+
+    /**
+     * Records the definition of a class by this classloader or any of it's children.
+     *
+     * @param definingLoader The classloader that defined the class
+     * @param name The binary name of the defined class
+     * @param nanos The time spent within {@link ClassLoader#defineClass(String, byte[], int, int)}, in nanoseconds.
+     */
+    void recordClassDefinition(@NotNull HierarchyClassLoader definingLoader, @NotNull String name, long nanos) {
+        this.definedClasses.put(name, definingLoader);
+        this.defineNanos.add(nanos);
+        this.defineCount.increment();
+        ClassLoadTrace trace = this.classLoadTrace;
+        if (trace != null) {
+            trace.record(name);
+        }
+    }
+
+    /**
+     * Registers a counter of another component (for example a cache) that should be reported as part of the
+     * {@link TransformationStatistics#getCounters() counters} of {@link #getTransformationStatistics()}.
+     * Registering a counter under a name that is already in use replaces the previous counter.
+     *
+     * @param name The name of the counter
+     * @param counter The supplier of the current value of the counter
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @AvailableSince("4.0.0-a20261018")
+    public void registerStatisticsCounter(@NotNull String name, @NotNull LongSupplier counter) {
+        this.statisticsCounters.put(name, counter);
+    }
+
+    /**
+     * Sets the trace that records the order in which classes are defined by this classloader or any of it's children.
+     *
+     * @param trace The trace to record class definitions in, or <code>null</code> to not trace class definitions.
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @Contract(mutates = "this")
+    @AvailableSince("4.0.0-a20261018")
+    public void setClassLoadTrace(@Nullable ClassLoadTrace trace) {
+        this.classLoadTrace = trace;
+    }
+
+    /**
+     * Sets the persistent cache of transformed classes. When a cache is set, classes that are claimed by any
+     * transformer are first looked up in the cache and are only transformed if the cache does not contain
+     * them yet. As the cache does not know about the transformers in use, the cache must only be set once the
+     * transformer pool is complete and must be unset (by passing <code>null</code>) whenever the transformer
+     * pool changes afterwards.
+     *
+     * <p>Classes claimed by any transformer that is not {@link ASMTransformer#isThreadSafe() thread-safe} are never cached,
+     * as such transformers (most notably mixin) may have side effects beyond the transformed class that are required
+     * at runtime, such as generating further classes.
+     *
+     * @param cache The cache to use, or <code>null</code> to disable caching.
+     * @since 4.0.0-a20261018
+     */
+    @Internal
+    @Contract(mutates = "this")
+    @AvailableSince("4.0.0-a20261018")
+    public void setTransformedClassCache(@Nullable TransformedClassCache cache) {
+        this.transformedClassCache = cache;
     }
 
     // Overridden to increase access (from protected to public)
@@ -440,6 +1469,8 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
     @Override
     public void addURL(URL url) {
         super.addURL(url);
+        this.indexURL(url);
+        this.onHierarchyChanged();
     }
 
     /**
@@ -485,6 +1516,12 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
                 MinestomRootClassLoader.LOGGER.info("Adding transformer {}", transformer.getClass().getName());
             }
             this.modifiers.add(transformer);
+            this.updateTransformerChain();
+            if (this.transformedClassCache != null) {
+                // The cache is keyed by the transformers that were registered when it was opened
+                MinestomRootClassLoader.LOGGER.info("Transformer {} was added after the transformed class cache was opened; transformed classes will no longer be cached.", transformer.getClass().getName());
+                this.transformedClassCache = null;
+            }
             if (MinestomRootClassLoader.DEBUG) {
                 MinestomRootClassLoader.LOGGER.info("Currently registered transformers: ");
                 for (ASMTransformer x : this.modifiers) {
@@ -562,33 +1599,167 @@ public class MinestomRootClassLoader extends HierarchyClassLoader implements Tra
             LoggerFactory.getLogger(MinestomRootClassLoader.class).debug("Cannot convert URL {} to a URI.", jarURL, e);
             jarURI = null;
         }
-        byte[] transformed = this.transformBytes(data.getBytes(), className, jarURI);
+        return this.transformAndDefine(this, className, data.getBuffer(), jarURL, jarURI);
+    }
+
+    /**
+     * Transforms and defines a class of this classloader or one of it's children. Concurrent requests for the same class
+     * share a single transformation and definition: The first request claims the class, transforms it and defines it,
+     * while the other requests wait for it and obtain the same class (or fail the same way). No class loading lock is held
+     * while doing so, which is why transformers may load further classes.
+     *
+     * <p>Transformers that are not {@link ASMTransformer#isThreadSafe() thread-safe} are serialised through a single lock,
+     * and the thread holding that lock may load further classes (mixin does so to look up the hierarchy of a class). Hence a
+     * thread must never wait for that lock while holding a claim, as the holder of the lock may be waiting for the claimed class.
+     * This is why the lock is acquired before claiming a class that needs it and held until the class is defined, and why
+     * the superclass and interfaces of the class (which the JVM loads while defining the class) are loaded before claiming it.
+     * For the same reason, thread-safe transformers must not load classes.
+     *
+     * <p>Requests of a class by the thread that claimed it (i.e. the class is requested while it is transformed or defined)
+     * fail with a {@link ClassCircularityError} instead of waiting for itself.
+     *
+     * @param loader The classloader that defines the class
+     * @param name The binary name of the class
+     * @param bytes The untransformed bytecode of the class
+     * @param source The URL the bytecode was read from, or <code>null</code> if unknown
+     * @param codeSourceURI The URI of the code source of the class passed to the transformers, or <code>null</code> if unknown
+     * @return The defined class
+     * @throws LinkageError If the class could not be defined
+     */
+    @NotNull
+    Class<?> transformAndDefine(@NotNull HierarchyClassLoader loader, @NotNull String name, @NotNull ByteBuffer bytes, @Nullable URL source, @Nullable URI codeSourceURI) {
+        this.loadSuperTypes(loader, bytes);
+        // The name of the class is assumed to match the requested name. Should that not be the case, the class will be rejected by the JVM anyways.
+        ByteBuffer baked = this.isProtected(name) ? bytes : this.lookupBaked(name.replace('.', '/'), bytes);
+        CandidateSelection selection = baked != null ? null : this.selectCandidates(name.replace('.', '/'), name, codeSourceURI);
+        boolean serial = selection != null && !selection.isThreadSafe();
+        if (serial) {
+            this.lockSerialTransformers();
+        }
+        try {
+            PendingDefinition pending = new PendingDefinition(loader);
+            while (true) {
+                Class<?> loaded = loader.findDefinedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                PendingDefinition other = this.pendingDefinitions.putIfAbsent(name, pending);
+                if (other == null) {
+                    break;
+                }
+                if (other.owner == Thread.currentThread()) {
+                    throw new ClassCircularityError(name + " was requested while it is being transformed or defined");
+                }
+                if (other.loader == loader) {
+                    return other.awaitOrThrow(name);
+                }
+                // Another classloader defines a class of the same name, which may be required to define this class
+                other.await();
+            }
 
-        if (MinestomRootClassLoader.DUMP) {
             try {
-                Path parent = Paths.get("classes", className.replace('.', '/')).getParent();
-                if (parent != null) {
-                    Files.createDirectories(parent);
+                ByteBuffer transformed = selection == null ? Objects.requireNonNull(baked) : this.transformBuffer(bytes, name, codeSourceURI, selection);
+                if (transformed != bytes) {
+                    // Transformers may change the superclass or interfaces
+                    this.loadSuperTypes(loader, transformed);
                 }
-                Files.write(Paths.get("classes", className.replace('.', '/') + ".class"), transformed);
-            } catch (IOException e) {
-                MinestomRootClassLoader.LOGGER.info("Unable to dump forcefully defined class '{}'", className, e);
+                if (MinestomRootClassLoader.DUMP) {
+                    try {
+                        Path path = Paths.get("classes", name.replace('.', '/') + ".class");
+                        Path parent = path.getParent();
+                        if (parent != null) {
+                            Files.createDirectories(parent);
+                        }
+                        Files.write(path, RawClassData.toByteArray(transformed));
+                    } catch (IOException e) {
+                        MinestomRootClassLoader.LOGGER.info("Unable to dump class '{}'", name, e);
+                    }
+                }
+                long defineStart = System.nanoTime();
+                Class<?> defined = loader.defineTransformedClass(name, transformed, MinestomRootClassLoader.toCodeSource(source));
+                this.recordClassDefinition(loader, name, System.nanoTime() - defineStart);
+                pending.future.complete(defined);
+                return defined;
+            } catch (Throwable t) {
+                pending.future.completeExceptionally(t);
+                throw t;
+            } finally {
+                this.pendingDefinitions.remove(name, pending);
+            }
+        } finally {
+            if (serial) {
+                this.serialTransformerLock.unlock();
             }
         }
+    }
 
-        if (jarURL == null) {
-            return super.defineClass(className, transformed, 0, transformed.length);
+    /**
+     * Loads the superclass and interfaces of a class through the classloader that is going to define the class,
+     * so that the JVM does not need to load them while the class is claimed. Failures are ignored, as they resurface
+     * when the class is defined.
+     *
+     * @param loader The classloader that is going to define the class
+     * @param bytes The bytecode of the class
+     */
+    private void loadSuperTypes(@NotNull HierarchyClassLoader loader, @NotNull ByteBuffer bytes) {
+        ClassReader reader;
+        if (bytes.hasArray()) {
+            reader = new ClassReader(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
         } else {
-            String path = jarURL.getPath();
-            int seperatorIndex = path.lastIndexOf('!');
-            if (seperatorIndex != -1) {
-                try {
-                    jarURL = new URL(path.substring(0, seperatorIndex));
-                } catch (MalformedURLException e) {
-                    MinestomRootClassLoader.LOGGER.warn("Bumped into a MalformedURLException while forcefully defining a class", e);
-                }
+            reader = new ClassReader(RawClassData.toByteArray(bytes));
+        }
+        String internalName = reader.getClassName();
+        Set<String> superTypeLoads = this.superTypeLoads.get();
+        if (!superTypeLoads.add(internalName)) {
+            // The hierarchy is circular, which the JVM reports when defining the class
+            return;
+        }
+        try {
+            String superName = reader.getSuperName();
+            if (superName != null) {
+                this.loadSuperType(loader, superName);
+            }
+            for (String interfaceName : reader.getInterfaces()) {
+                this.loadSuperType(loader, interfaceName);
             }
-            return super.defineClass(className, transformed, 0, transformed.length, new CodeSource(jarURL, (Certificate[]) null));
+        } finally {
+            superTypeLoads.remove(internalName);
         }
     }
+
+    private void loadSuperType(@NotNull HierarchyClassLoader loader, @NotNull String internalName) {
+        if (internalName.startsWith("java/")) {
+            return;
+        }
+        String name = internalName.replace('/', '.');
+        if (this.definedClasses.containsKey(name)) {
+            return;
+        }
+        try {
+            loader.loadClass(name);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // Reported when the class is defined
+        }
+    }
+
+    @Nullable
+    private static CodeSource toCodeSource(@Nullable URL jarURL) {
+        if (jarURL == null) {
+            return null;
+        }
+        String path = jarURL.getPath();
+        int seperatorIndex = path.lastIndexOf('!');
+        if (seperatorIndex != -1) {
+            try {
+                jarURL = new URL(path.substring(0, seperatorIndex));
+            } catch (MalformedURLException e) {
+                MinestomRootClassLoader.LOGGER.warn("Bumped into a MalformedURLException while defining a class", e);
+            }
+        }
+        return new CodeSource(jarURL, (Certificate[]) null);
+    }
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
 }
@@ -0,0 +1,222 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Cache of names that are known to be absent from a level of the classloader hierarchy, consisting of
+ * a Bloom filter over all names that are present, as well as an exact set of recent misses.
+ * The Bloom filter is made of one layer per URL of the classloader, each layer being sized for the
+ * entries of the URL. A name that is absent from all layers is guaranteed to be absent from the classloader.
+ * The Bloom filter is only usable as long as all URLs could be listed, and the cache is disabled entirely
+ * if any URL is a directory, as the contents of directories may change at any time.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class NegativeLookupCache {
+
+    private static final class BloomLayer {
+        private static final int HASH_FUNCTIONS = 7;
+
+        private final long @NotNull[] bits;
+
+        private BloomLayer(int expectedEntries) {
+            // 10 bits per entry and 7 hash functions yield a false positive rate of about 1%
+            this.bits = new long[Math.max(1, (expectedEntries * 10 + 63) >>> 6)];
+        }
+
+        private void add(@NotNull String name) {
+            int hash1 = name.hashCode();
+            int hash2 = NegativeLookupCache.mix(hash1);
+            long bitCount = this.bits.length * 64L;
+            for (int i = 0; i < BloomLayer.HASH_FUNCTIONS; i++) {
+                int bit = (int) (((hash1 + i * (long) hash2) & Long.MAX_VALUE) % bitCount);
+                this.bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        private boolean mightContain(@NotNull String name) {
+            int hash1 = name.hashCode();
+            int hash2 = NegativeLookupCache.mix(hash1);
+            long bitCount = this.bits.length * 64L;
+            for (int i = 0; i < BloomLayer.HASH_FUNCTIONS; i++) {
+                int bit = (int) (((hash1 + i * (long) hash2) & Long.MAX_VALUE) % bitCount);
+                if ((this.bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The maximum amount of recent misses to remember. The set of recent misses is cleared once it grows past this size.
+     */
+    private static final int MAX_RECENT_MISSES = 8192;
+
+    private static int mix(int hash) {
+        // Finalization step of murmur3
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash | 1;
+    }
+
+    @NotNull
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Incremented whenever the recent misses are forgotten, used to discard misses of lookups that raced with a change of the classloader.
+     */
+    private volatile int generation;
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Whether a URL could not be listed, in which case the Bloom filter must not be used.
+     */
+    private volatile boolean incomplete;
+
+    @NotNull
+    private volatile BloomLayer @NotNull[] layers = new BloomLayer[0];
+
+    /**
+     * Whether a URL may change its contents at any time, in which case no name can be known to be absent.
+     */
+    private volatile boolean mutable;
+
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+    @NotNull
+    private final Set<String> recentMisses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds the names provided by a URL to the Bloom filter and forgets all recent misses.
+     *
+     * @param names The names provided by the URL
+     */
+    @Contract(mutates = "this")
+    synchronized void addLayer(@NotNull Iterable<@NotNull String> names, int size) {
+        BloomLayer layer = new BloomLayer(size);
+        for (String name : names) {
+            layer.add(name);
+        }
+        BloomLayer[] layers = this.layers;
+        BloomLayer[] copy = new BloomLayer[layers.length + 1];
+        System.arraycopy(layers, 0, copy, 0, layers.length);
+        copy[layers.length] = layer;
+        this.layers = copy;
+        this.clearRecentMisses();
+    }
+
+    /**
+     * Forgets all recent misses, usually because the classloader changed in a way that was not recorded by the Bloom filter.
+     */
+    @Contract(mutates = "this")
+    synchronized void clearRecentMisses() {
+        this.generation++;
+        this.recentMisses.clear();
+    }
+
+    /**
+     * Collects the statistics of this cache into a map.
+     *
+     * @param prefix The prefix of the keys
+     * @param out The map to add the statistics to. Existing values are summed up.
+     */
+    void collectStatistics(@NotNull String prefix, @NotNull Map<String, Long> out) {
+        out.merge(prefix + "Hits", this.hits.sum(), Long::sum);
+        out.merge(prefix + "Misses", this.misses.sum(), Long::sum);
+        out.merge(prefix + "FalsePositives", this.falsePositives.sum(), Long::sum);
+    }
+
+    /**
+     * Obtains the current generation of the cache, which must be passed to {@link #recordMiss(String, int)}.
+     * Should be called before looking up the name.
+     *
+     * @return The current generation
+     */
+    int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Checks whether a name is known to be absent.
+     *
+     * @param name The name to check
+     * @return True if the name is known to be absent, false if the name might be present.
+     */
+    boolean isAbsent(@NotNull String name) {
+        if (this.mutable) {
+            this.misses.increment();
+            return false;
+        }
+        if (this.recentMisses.contains(name)) {
+            this.hits.increment();
+            return true;
+        }
+        if (!this.incomplete) {
+            for (BloomLayer layer : this.layers) {
+                if (layer.mightContain(name)) {
+                    this.misses.increment();
+                    return false;
+                }
+            }
+            this.hits.increment();
+            return true;
+        }
+        this.misses.increment();
+        return false;
+    }
+
+    /**
+     * Marks the Bloom filter as unusable, usually because a URL could not be listed.
+     */
+    @Contract(mutates = "this")
+    void markIncomplete() {
+        this.incomplete = true;
+        this.clearRecentMisses();
+    }
+
+    /**
+     * Disables the cache entirely, as a URL may change it's contents at any time. Neither the Bloom filter nor recent misses
+     * are used afterwards, as a name that is absent now may be present later on.
+     */
+    @Contract(mutates = "this")
+    void markMutable() {
+        this.mutable = true;
+        this.markIncomplete();
+    }
+
+    /**
+     * Records that a name that was not {@link #isAbsent(String) known to be absent} turned out to be absent.
+     *
+     * @param name The absent name
+     * @param generation The {@link #getGeneration() generation} of the cache before the name was looked up
+     */
+    void recordMiss(@NotNull String name, int generation) {
+        if (this.mutable) {
+            return;
+        }
+        if (!this.incomplete) {
+            this.falsePositives.increment();
+        }
+        if (this.recentMisses.size() >= NegativeLookupCache.MAX_RECENT_MISSES) {
+            this.recentMisses.clear();
+        }
+        this.recentMisses.add(name);
+        if (this.generation != generation) {
+            // The classloader changed while the name was looked up
+            this.recentMisses.remove(name);
+        }
+    }
+}
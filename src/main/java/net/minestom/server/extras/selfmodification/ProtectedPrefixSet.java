@@ -0,0 +1,148 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Concurrent set of string prefixes that can efficiently check whether any of it's elements is a prefix of a given string.
+ * The set compiles it's elements into a sorted array snapshot from which all elements that are prefixed by another element
+ * were removed. In such an array, the only candidate prefix of a string is the greatest element that is not greater than the string,
+ * which can be found through a binary search. The snapshot is recompiled lazily after the set was modified.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class ProtectedPrefixSet extends AbstractSet<String> {
+
+    private static final class Snapshot {
+        @NotNull
+        private final String @NotNull[] prefixes;
+        private final int version;
+
+        private Snapshot(@NotNull String @NotNull[] prefixes, int version) {
+            this.prefixes = prefixes;
+            this.version = version;
+        }
+    }
+
+    @NotNull
+    private final Set<String> elements = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The compiled snapshot of {@link #elements}. Outdated if it's version does not match {@link #version}.
+     */
+    @NotNull
+    private volatile Snapshot snapshot = new Snapshot(new String[0], 0);
+
+    /**
+     * Incremented after every modification of {@link #elements}.
+     */
+    @NotNull
+    private final AtomicInteger version = new AtomicInteger();
+
+    @Override
+    public boolean add(String element) {
+        if (this.elements.add(element)) {
+            this.version.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        this.elements.clear();
+        this.version.incrementAndGet();
+    }
+
+    @NotNull
+    private Snapshot compile() {
+        // Should the set be modified concurrently, the version of the snapshot will not match and the snapshot will be recompiled
+        int version = this.version.get();
+        String[] sorted = this.elements.toArray(new String[0]);
+        Arrays.sort(sorted);
+        List<String> compiled = new ArrayList<>(sorted.length);
+        String previous = null;
+        for (String element : sorted) {
+            // Elements prefixed by another element are sorted after the prefix, possibly with other prefixed elements between them
+            if (previous == null || !element.startsWith(previous)) {
+                compiled.add(element);
+                previous = element;
+            }
+        }
+        Snapshot snapshot = new Snapshot(compiled.toArray(new String[0]), version);
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.elements.contains(o);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> delegate = this.elements.iterator();
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return delegate.next();
+            }
+
+            @Override
+            public void remove() {
+                delegate.remove();
+                ProtectedPrefixSet.this.version.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Checks whether any element of this set is a prefix of the given string.
+     *
+     * @param string The string to check
+     * @return True if the string starts with any element of this set, false otherwise.
+     */
+    @Contract(pure = true)
+    boolean isPrefixed(@NotNull String string) {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot.version != this.version.get()) {
+            snapshot = this.compile();
+        }
+        int index = Arrays.binarySearch(snapshot.prefixes, string);
+        if (index >= 0) {
+            return true;
+        }
+        int floor = -index - 2;
+        return floor >= 0 && string.startsWith(snapshot.prefixes[floor]);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (this.elements.remove(o)) {
+            this.version.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return this.elements.size();
+    }
+}
@@ -0,0 +1,184 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.geolykt.starloader.util.InputFingerprint;
+
+/**
+ * A persistent cache of transformed class bytecode. Entries are keyed by the hash of the name, code source and untransformed
+ * bytecode of a class and are stored in a directory named after the fingerprint of the inputs of the
+ * transformation pipeline (see {@link InputFingerprint}). Opening a cache with a different fingerprint
+ * discards all entries created under any other fingerprint, meaning that the cache is automatically
+ * invalidated as soon as any of the inputs change.
+ *
+ * @since 4.0.0-a20261018
+ */
+@Internal
+@AvailableSince("4.0.0-a20261018")
+public final class TransformedClassCache {
+
+    private static final ThreadLocal<MessageDigest> DIGEST = Objects.requireNonNull(ThreadLocal.withInitial(InputFingerprint::newDigest));
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransformedClassCache.class);
+
+    @NotNull
+    public static TransformedClassCache open(@NotNull Path cacheRoot, @NotNull String fingerprint) throws IOException {
+        Files.createDirectories(cacheRoot);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheRoot)) {
+            for (Path stale : stream) {
+                if (!stale.getFileName().toString().equals(fingerprint)) {
+                    TransformedClassCache.LOGGER.debug("Discarding stale transformed class cache {}", stale);
+                    TransformedClassCache.deleteRecursively(stale);
+                }
+            }
+        }
+
+        Path directory = cacheRoot.resolve(fingerprint);
+        Files.createDirectories(directory);
+        TransformedClassCache cache = new TransformedClassCache(directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.class")) {
+            for (Path entry : stream) {
+                String fileName = entry.getFileName().toString();
+                cache.entries.add(fileName.substring(0, fileName.length() - 6));
+            }
+        }
+        return cache;
+    }
+
+    private static void deleteRecursively(@NotNull Path path) throws IOException {
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @NotNull
+    private final Path directory;
+    @NotNull
+    private final Set<String> entries = ConcurrentHashMap.newKeySet();
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+    @NotNull
+    private final LongAdder stores = new LongAdder();
+
+    private TransformedClassCache(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    @Nullable
+    @Contract(pure = false)
+    byte[] get(@NotNull String key) {
+        if (this.entries.contains(key)) {
+            try {
+                byte[] data = Files.readAllBytes(this.directory.resolve(key + ".class"));
+                // Guard against truncated or otherwise foreign files
+                if (data.length > 4 && (data[0] & 0xFF) == 0xCA && (data[1] & 0xFF) == 0xFE && (data[2] & 0xFF) == 0xBA && (data[3] & 0xFF) == 0xBE) {
+                    this.hits.increment();
+                    return data;
+                }
+                TransformedClassCache.LOGGER.warn("Ignoring malformed transformed class cache entry {}", key);
+            } catch (IOException e) {
+                TransformedClassCache.LOGGER.warn("Unable to read transformed class cache entry {}", key, e);
+            }
+            this.entries.remove(key);
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Contract(pure = true)
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Obtains the key of the cache entry of a class. Transformers are passed the code source of a class and may thus
+     * transform the same bytecode differently depending on where it was loaded from, which is why the code source is part of the key.
+     *
+     * @param internalName The internal name of the class
+     * @param codeSourceURI The URI of the code source of the class, if known
+     * @param untransformedBytecode The untransformed bytecode of the class
+     * @return The key of the cache entry
+     */
+    @NotNull
+    @Contract(pure = true)
+    String getKey(@NotNull String internalName, @Nullable URI codeSourceURI, byte @NotNull[] untransformedBytecode) {
+        MessageDigest digest = TransformedClassCache.DIGEST.get();
+        digest.update(internalName.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (codeSourceURI != null) {
+            digest.update(codeSourceURI.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        digest.update(untransformedBytecode);
+        return InputFingerprint.toHexString(digest.digest());
+    }
+
+    @Contract(pure = true)
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Contract(pure = true)
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    @Contract(pure = false)
+    void put(@NotNull String key, byte @NotNull[] transformedBytecode) {
+        if (this.entries.contains(key)) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(this.directory, key, ".tmp");
+            try {
+                Files.write(temp, transformedBytecode);
+                Files.move(temp, this.directory.resolve(key + ".class"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            this.entries.add(key);
+            this.stores.increment();
+        } catch (IOException e) {
+            TransformedClassCache.LOGGER.warn("Unable to store transformed class cache entry {}", key, e);
+        }
+    }
+}
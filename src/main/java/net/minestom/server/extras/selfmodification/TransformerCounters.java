@@ -0,0 +1,43 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+import de.geolykt.starloader.transformers.TransformerStatistics;
+
+/**
+ * Mutable statistics about a single {@link ASMTransformer}, updated concurrently by transforming threads.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class TransformerCounters {
+
+    @NotNull
+    final LongAdder acceptedClasses = new LongAdder();
+    @NotNull
+    final LongAdder bytesIn = new LongAdder();
+    @NotNull
+    final LongAdder bytesOut = new LongAdder();
+    @NotNull
+    final LongAdder modifiedClasses = new LongAdder();
+    @NotNull
+    final LongAdder transformNanos = new LongAdder();
+    @NotNull
+    private final String transformerName;
+    @NotNull
+    final LongAdder validTargetCalls = new LongAdder();
+
+    TransformerCounters(@NotNull ASMTransformer transformer) {
+        this.transformerName = transformer.getClass().getName();
+    }
+
+    @NotNull
+    TransformerStatistics snapshot() {
+        return new TransformerStatistics(this.transformerName, this.validTargetCalls.sum(), this.acceptedClasses.sum(),
+                this.modifiedClasses.sum(), this.transformNanos.sum(), this.bytesIn.sum(), this.bytesOut.sum());
+    }
+}
@@ -0,0 +1,126 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.LoggerFactory;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+import de.geolykt.starloader.transformers.TransformerTargets;
+
+/**
+ * Immutable snapshot of the transformer pool, indexing transformers by their {@link ASMTransformer#getDeclaredTargets() declared targets}.
+ * Exact class names are looked up in a hash table, package prefixes are looked up per package segment of the class name
+ * (forming a trie over the package hierarchy). Transformers that do not declare their targets are always selected.
+ *
+ * @since 4.0.0-a20261018
+ */
+@AvailableSince("4.0.0-a20261018")
+final class TransformerDispatchIndex {
+
+    @NotNull
+    static final TransformerDispatchIndex EMPTY = new TransformerDispatchIndex(new ASMTransformer[0], TransformerCounters::new);
+
+    private static int @NotNull[] append(int @Nullable[] array, int value) {
+        if (array == null) {
+            return new int[] {value};
+        }
+        int[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    /**
+     * Transformers that are selected for all classes, indexed by their position in the chain.
+     */
+    private final boolean @NotNull[] alwaysSelected;
+
+    @NotNull
+    private final Map<String, int[]> exactTargets = new HashMap<>();
+
+    /**
+     * The statistics of the transformers, indexed by their position in {@link #transformers}.
+     */
+    final TransformerCounters @NotNull[] counters;
+
+    /**
+     * The deepest package prefix that is present in {@link #packageTargets}, measured in segments.
+     */
+    private final int maxPackageDepth;
+
+    @NotNull
+    private final Map<String, int[]> packageTargets = new HashMap<>();
+
+    /**
+     * The transformer pool in application order.
+     */
+    final ASMTransformer @NotNull[] transformers;
+
+    TransformerDispatchIndex(ASMTransformer @NotNull[] transformers, @NotNull Function<@NotNull ASMTransformer, @NotNull TransformerCounters> counters) {
+        this.transformers = transformers;
+        this.counters = new TransformerCounters[transformers.length];
+        this.alwaysSelected = new boolean[transformers.length];
+        int maxDepth = 0;
+        for (int i = 0; i < transformers.length; i++) {
+            this.counters[i] = counters.apply(transformers[i]);
+            TransformerTargets targets;
+            try {
+                targets = transformers[i].getDeclaredTargets();
+            } catch (RuntimeException e) {
+                LoggerFactory.getLogger(TransformerDispatchIndex.class).error("Unable to obtain the declared targets of transformer {}; falling back to polling it for every class.", transformers[i].getClass().getName(), e);
+                targets = null;
+            }
+            if (targets == null || targets.isAll()) {
+                this.alwaysSelected[i] = true;
+                continue;
+            }
+            for (String name : targets.getClasses()) {
+                this.exactTargets.put(name, TransformerDispatchIndex.append(this.exactTargets.get(name), i));
+            }
+            for (String prefix : targets.getPackagePrefixes()) {
+                int depth = 0;
+                for (int j = prefix.indexOf('/'); j != -1; j = prefix.indexOf('/', j + 1)) {
+                    depth++;
+                }
+                maxDepth = Math.max(maxDepth, depth);
+                this.packageTargets.put(prefix, TransformerDispatchIndex.append(this.packageTargets.get(prefix), i));
+            }
+        }
+        this.maxPackageDepth = maxDepth;
+    }
+
+    /**
+     * Obtains the transformers that may be interested in a class, indexed by their position in {@link #transformers}.
+     *
+     * @param internalName The internal name of the class
+     * @return A newly allocated array, where <code>true</code> denotes that the transformer at the same index is a candidate.
+     */
+    boolean @NotNull[] select(@NotNull String internalName) {
+        boolean[] selected = this.alwaysSelected.clone();
+        if (!this.exactTargets.isEmpty()) {
+            int[] exact = this.exactTargets.get(internalName);
+            if (exact != null) {
+                for (int i : exact) {
+                    selected[i] = true;
+                }
+            }
+        }
+        if (!this.packageTargets.isEmpty()) {
+            int depth = 0;
+            for (int i = internalName.indexOf('/'); i != -1 && depth++ < this.maxPackageDepth; i = internalName.indexOf('/', i + 1)) {
+                int[] prefixed = this.packageTargets.get(internalName.substring(0, i + 1));
+                if (prefixed != null) {
+                    for (int j : prefixed) {
+                        selected[j] = true;
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,107 @@
+package org.stianloader.sll.transform;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Records the methods of a class whose code was modified by one or more {@link ReportingCodeTransformer ReportingCodeTransformers}.
+ * Methods that were not reported as changed may have their bytecode copied as-is from the untransformed class file,
+ * without being regenerated from the {@link ClassNode} and without recomputing their stack map frames.
+ *
+ * <p>A method is considered changed if anything other than its access flags, signature or exceptions
+ * has been modified. This includes instructions, try-catch blocks, local variables, annotations,
+ * parameter names and non-standard attributes. Methods that were added, removed or renamed,
+ * as well as changes to fields or the class header need not be reported.
+ * Changes that cannot be expressed through the changed methods (for example changing the
+ * name of the class) must be reported through {@link #markFullRewrite()}.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @since 4.0.0-a20261018
+ */
+@ApiStatus.Experimental
+@ApiStatus.AvailableSince("4.0.0-a20261018")
+public final class ChangeReport {
+
+    @NotNull
+    private final Set<String> changedMethods = new HashSet<>();
+    private boolean fullRewrite;
+
+    /**
+     * Checks whether the method with the given name and descriptor was reported as changed.
+     * Always returns <code>true</code> if {@link #markFullRewrite()} was called.
+     *
+     * @param name The name of the method
+     * @param desc The descriptor of the method
+     * @return True if the method was changed, false otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public boolean isMethodChanged(@NotNull String name, @NotNull String desc) {
+        return this.fullRewrite || this.changedMethods.contains(name + desc);
+    }
+
+    /**
+     * Checks whether the class as a whole needs to be regenerated from the {@link ClassNode}.
+     *
+     * @return True if no bytecode should be copied from the untransformed class file.
+     * @since 4.0.0-a20261018
+     */
+    @Contract(pure = true)
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public boolean isFullRewrite() {
+        return this.fullRewrite;
+    }
+
+    /**
+     * Records that the class must be regenerated in its entirety, meaning that no method will have
+     * its bytecode copied from the untransformed class file.
+     *
+     * @return The current instance, for chaining
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(mutates = "this", value = "-> this")
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public ChangeReport markFullRewrite() {
+        this.fullRewrite = true;
+        return this;
+    }
+
+    /**
+     * Records that the code of a method was changed.
+     *
+     * @param method The changed method
+     * @return The current instance, for chaining
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public ChangeReport markMethodChanged(@NotNull MethodNode method) {
+        return this.markMethodChanged(method.name, method.desc);
+    }
+
+    /**
+     * Records that the code of the method with the given name and descriptor was changed.
+     *
+     * @param name The name of the method
+     * @param desc The descriptor of the method
+     * @return The current instance, for chaining
+     * @since 4.0.0-a20261018
+     */
+    @NotNull
+    @Contract(mutates = "this", value = "_, _ -> this")
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    public ChangeReport markMethodChanged(@NotNull String name, @NotNull String desc) {
+        this.changedMethods.add(name + desc);
+        return this;
+    }
+}
@@ -0,0 +1,50 @@
+package org.stianloader.sll.transform;
+
+import java.net.URI;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.tree.ClassNode;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+
+/**
+ * A {@link CodeTransformer} that reports which methods it has changed. If all transformers that modified
+ * a class are reporting transformers, the bytecode of unchanged methods and the constant pool of the class are copied
+ * from the untransformed class file instead of being regenerated, which makes small modifications of large classes
+ * considerably cheaper.
+ *
+ * <p>Like {@link CodeTransformer}, this interface is meant to be implemented alongside {@link ASMTransformer}.
+ *
+ * @since 4.0.0-a20261018
+ */
+@ApiStatus.Experimental
+@ApiStatus.AvailableSince("4.0.0-a20261018")
+public interface ReportingCodeTransformer extends CodeTransformer {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec Delegates to {@link #transformClass(ClassNode, URI, ChangeReport)} with a report that is discarded.
+     */
+    @Override
+    default boolean transformClass(@NotNull ClassNode node, @Nullable URI codeSourceURI) {
+        return this.transformClass(node, codeSourceURI, new ChangeReport());
+    }
+
+    /**
+     * Optionally transforms a class, returning <code>true</code> if the input <code>node</code> was modified,
+     * <code>false</code> otherwise. Behaves like {@link CodeTransformer#transformClass(ClassNode, URI)}, except that
+     * all methods whose code was modified must be recorded in the supplied {@link ChangeReport}. Failing
+     * to report a changed method may result in the change being silently discarded.
+     *
+     * @param node The input and output {@link ClassNode} to transform.
+     * @param codeSourceURI The {@link URI} where this class is located in, see {@link CodeTransformer#transformClass(ClassNode, URI)}.
+     * @param report The report to record changed methods in. The report may already contain changes reported by other transformers.
+     * @return <code>true</code> if the input node was transformed, <code>false</code> otherwise.
+     * @since 4.0.0-a20261018
+     */
+    @ApiStatus.AvailableSince("4.0.0-a20261018")
+    boolean transformClass(@NotNull ClassNode node, @Nullable URI codeSourceURI, @NotNull ChangeReport report);
+}
@@ -0,0 +1,109 @@
+package de.geolykt.starloader.launcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jetbrains.annotations.NotNull;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MixinAuditTrailTest {
+
+    @NotNull
+    private static JSONObject getTarget(@NotNull JSONObject auditTrail, @NotNull String target) {
+        JSONArray targets = auditTrail.getJSONArray("targets");
+        for (int i = 0; i < targets.length(); i++) {
+            JSONObject targetJSON = targets.getJSONObject(i);
+            if (targetJSON.getString("target").equals(target)) {
+                return targetJSON;
+            }
+        }
+        return fail("Target " + target + " was not recorded");
+    }
+
+    @NotNull
+    private static JSONObject write(@NotNull MixinAuditTrail auditTrail, @NotNull Path file) throws IOException {
+        auditTrail.write(file);
+        return new JSONObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNestedApplicationExcludesChildTime(@TempDir Path directory) throws IOException {
+        MixinAuditTrail auditTrail = new MixinAuditTrail();
+        auditTrail.registerConfigOwner("outer.mixins.json", "outer-extension");
+        auditTrail.registerConfigOwner("inner.mixins.json", "inner-extension");
+
+        auditTrail.begin("com.example.Outer");
+        auditTrail.onApply("com.example.Outer", "outer.mixins.json:OuterMixin");
+        // Transforming the outer class loads the inner class
+        auditTrail.begin("com.example.Inner");
+        auditTrail.onApply("com.example.Inner", "inner.mixins.json:InnerMixin");
+        auditTrail.end(700L);
+        auditTrail.onPostProcess("com.example.Outer");
+        auditTrail.end(1000L);
+
+        JSONObject json = MixinAuditTrailTest.write(auditTrail, directory.resolve("mixin-audit-trail.json"));
+        JSONObject outer = MixinAuditTrailTest.getTarget(json, "com.example.Outer");
+        assertEquals(300L, outer.getLong("nanos"));
+        assertEquals(1L, outer.getLong("transformations"));
+        assertTrue(outer.getBoolean("postProcessed"));
+        assertEquals(1, outer.getJSONArray("mixins").length());
+        assertEquals("outer.mixins.json:OuterMixin", outer.getJSONArray("mixins").getJSONObject(0).getString("mixin"));
+        assertEquals("outer-extension", outer.getJSONArray("mixins").getJSONObject(0).getString("extension"));
+
+        JSONObject inner = MixinAuditTrailTest.getTarget(json, "com.example.Inner");
+        assertEquals(700L, inner.getLong("nanos"));
+        assertFalse(inner.getBoolean("postProcessed"));
+        assertEquals(1, inner.getJSONArray("mixins").length());
+        assertEquals("inner-extension", inner.getJSONArray("mixins").getJSONObject(0).getString("extension"));
+
+        // Targets are sorted by the time spent on them
+        assertEquals("com.example.Inner", json.getJSONArray("targets").getJSONObject(0).getString("target"));
+    }
+
+    @Test
+    public void testOrphanApplicationsAreRecorded(@TempDir Path directory) throws IOException {
+        MixinAuditTrail auditTrail = new MixinAuditTrail();
+        auditTrail.registerConfigOwner("orphan.mixins.json", "orphan-extension");
+
+        // Not applied through the ASMMixinTransformer
+        auditTrail.onApply("com.example.Orphan", "orphan.mixins.json:FirstMixin");
+        JSONObject first = MixinAuditTrailTest.getTarget(MixinAuditTrailTest.write(auditTrail, directory.resolve("first.json")), "com.example.Orphan");
+        assertEquals(1, first.getJSONArray("mixins").length());
+        assertEquals(0L, first.getLong("nanos"));
+
+        auditTrail.onApply("com.example.Orphan", "orphan.mixins.json:SecondMixin");
+        auditTrail.onPostProcess("com.example.Orphan");
+        JSONObject second = MixinAuditTrailTest.getTarget(MixinAuditTrailTest.write(auditTrail, directory.resolve("second.json")), "com.example.Orphan");
+        assertEquals(2, second.getJSONArray("mixins").length());
+        assertTrue(second.getBoolean("postProcessed"));
+    }
+
+    @Test
+    public void testPendingAndEmptyApplicationsAreNotWritten(@TempDir Path directory) throws IOException {
+        MixinAuditTrail auditTrail = new MixinAuditTrail();
+        auditTrail.registerConfigOwner("pending.mixins.json", "pending-extension");
+
+        auditTrail.begin("com.example.Untouched");
+        auditTrail.end(100L);
+        auditTrail.begin("com.example.Pending");
+        auditTrail.onApply("com.example.Pending", "pending.mixins.json:PendingMixin");
+
+        JSONObject json = MixinAuditTrailTest.write(auditTrail, directory.resolve("mixin-audit-trail.json"));
+        assertEquals(0, json.getJSONArray("targets").length());
+
+        auditTrail.end(100L);
+        json = MixinAuditTrailTest.write(auditTrail, directory.resolve("mixin-audit-trail.json"));
+        assertEquals(1, json.getJSONArray("targets").length());
+        assertEquals(100L, MixinAuditTrailTest.getTarget(json, "com.example.Pending").getLong("nanos"));
+    }
+}
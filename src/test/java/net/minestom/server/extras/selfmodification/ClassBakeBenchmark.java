@@ -0,0 +1,132 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+
+/**
+ * Compares obtaining the transformed bytecode of classes from a {@link ClassBake} that was loaded from disk with running
+ * the transformation pipeline, using a transformer that modifies every class it is given. Real transformers such as mixin
+ * are considerably more expensive than the transformer used here, so the difference is a lower bound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClassBakeBenchmark {
+
+    /**
+     * Thread-safe transformer that adds a field to every class of the benchmark.
+     */
+    private static final class FieldAddingTransformer extends ASMTransformer {
+        @Override
+        public boolean accept(@NotNull ClassNode node) {
+            node.fields.add(new FieldNode(Opcodes.ACC_PUBLIC, "benchmarkField", "I", null, null));
+            return true;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public boolean isValidTarget(@NotNull String internalName) {
+            return internalName.startsWith(ClassBakeBenchmark.PACKAGE);
+        }
+    }
+
+    private static final int CLASS_COUNT = 64;
+    private static final String FINGERPRINT = "benchmark";
+    private static final String PACKAGE = "benchmark/bake/";
+
+    /**
+     * Whether the classes are obtained from the bake or transformed.
+     */
+    @Param({"true", "false"})
+    public boolean baked;
+
+    private Path directory;
+    private String[] names;
+    private int next;
+    private String[] paths;
+    private MinestomRootClassLoader root;
+    private ClassPathStorage storage;
+    private FieldAddingTransformer transformer;
+
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("sll-classbake-benchmark");
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        this.names = new String[ClassBakeBenchmark.CLASS_COUNT];
+        this.paths = new String[ClassBakeBenchmark.CLASS_COUNT];
+        for (int i = 0; i < ClassBakeBenchmark.CLASS_COUNT; i++) {
+            String internalName = ClassBakeBenchmark.PACKAGE + "Class" + i;
+            classes.put(internalName, TestJars.generateClass(internalName, "java/lang/Object", 32));
+            this.names[i] = internalName.replace('/', '.');
+            this.paths[i] = internalName + ".class";
+        }
+        URL jar = TestJars.writeJar(this.directory.resolve("input.jar"), classes, true);
+        this.storage = ClassPathStorage.open(jar);
+        this.root = MinestomRootClassLoader.getInstance();
+        this.transformer = new FieldAddingTransformer();
+        this.root.addASMTransformer(this.transformer);
+
+        if (this.baked) {
+            ClassBake bake = ClassBake.record();
+            this.root.setClassBake(bake);
+            for (int i = 0; i < ClassBakeBenchmark.CLASS_COUNT; i++) {
+                this.root.transformBytes(this.storage.read(this.paths[i]), this.names[i], null);
+            }
+            this.root.setClassBake(null);
+            Path bakeDirectory = this.directory.resolve("bake");
+            bake.write(bakeDirectory, ClassBakeBenchmark.FINGERPRINT);
+            this.root.setClassBake(ClassBake.load(bakeDirectory, ClassBakeBenchmark.FINGERPRINT));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.root.setClassBake(null);
+        this.root.removeASMTransformer(this.transformer);
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path file : (Iterable<Path>) files.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer transformBuffer() throws IOException {
+        int index = this.next;
+        this.next = (index + 1) % this.names.length;
+        return this.root.transformBuffer(this.storage.readBuffer(this.paths[index]), this.names[index], null);
+    }
+}
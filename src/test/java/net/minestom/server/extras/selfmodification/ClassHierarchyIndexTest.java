@@ -0,0 +1,49 @@
+package net.minestom.server.extras.selfmodification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.geolykt.starloader.transformers.RawClassData;
+
+/**
+ * Computes common super classes of classes that only exist as class files, classes that only exist
+ * as defined classes (as is the case for classes generated at runtime) and mixtures thereof.
+ */
+public class ClassHierarchyIndexTest {
+
+    private static final String PACKAGE = "classhierarchyindextest/";
+
+    @Test
+    public void testDefinedClassWithoutClassFile(@TempDir Path directory) throws Exception {
+        MinestomRootClassLoader root = MinestomRootClassLoader.getInstance();
+        String base = ClassHierarchyIndexTest.PACKAGE + "GeneratedBase";
+        String generated = ClassHierarchyIndexTest.PACKAGE + "Generated";
+        String stored = ClassHierarchyIndexTest.PACKAGE + "Stored";
+
+        // Neither class has a class file, much like the classes mixin generates at runtime
+        root.transformAndDefineClass(base.replace('/', '.'), new RawClassData(null, TestJars.generateClass(base, "java/lang/Object", 0)));
+        root.transformAndDefineClass(generated.replace('/', '.'), new RawClassData(null, TestJars.generateClass(generated, base, 0)));
+
+        URL jar = TestJars.writeJar(directory.resolve("stored.jar"), Collections.singletonMap(stored, TestJars.generateClass(stored, base, 0)), true);
+        MinestomExtensionClassLoader loader = new MinestomExtensionClassLoader("stored", new URL[] {jar}, root);
+        root.addChild(loader);
+        try {
+            ClassHierarchyIndex index = new ClassHierarchyIndex(root);
+            assertEquals(base, index.getCommonSuperClass(generated, stored));
+            assertEquals(base, index.getCommonSuperClass(stored, generated));
+            assertEquals(base, index.getCommonSuperClass(base, generated));
+            assertEquals("java/lang/Object", index.getCommonSuperClass(generated, "java/lang/String"));
+            assertThrows(TypeNotPresentException.class, () -> index.getCommonSuperClass(generated, ClassHierarchyIndexTest.PACKAGE + "Missing"));
+        } finally {
+            root.removeChildInHierarchy(loader);
+            loader.close();
+        }
+    }
+}
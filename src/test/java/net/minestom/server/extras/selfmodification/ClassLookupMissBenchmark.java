@@ -0,0 +1,123 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minestom.server.extras.selfmodification.HierarchyClassLoader.ClassLookupFailures;
+
+/**
+ * Measures looking up classes that do not exist in a chain of extension classloaders, where the deepest classloader
+ * is a descendant of all other classloaders. Lookups of distinct names defeat the cache of recent misses, whereas lookups
+ * of the same name are answered by it. {@link MinestomExtensionClassLoader#findClassAsChild(String, boolean, ClassLookupFailures)}
+ * is the internal lookup used between the classloaders, which does not create any exception for a miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClassLookupMissBenchmark {
+
+    private static final int CLASS_COUNT = 32;
+    private static final String PACKAGE = "benchmark.miss.";
+
+    /**
+     * The amount of extension classloaders in the chain.
+     */
+    @Param({"1", "8"})
+    public int depth;
+
+    private MinestomExtensionClassLoader deepest;
+    private Path directory;
+    private MinestomExtensionClassLoader[] loaders;
+    private long missCounter;
+    private MinestomRootClassLoader root;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+        this.directory = Files.createTempDirectory("sll-lookupmiss-benchmark");
+        this.root = MinestomRootClassLoader.getInstance();
+        this.loaders = new MinestomExtensionClassLoader[this.depth];
+        HierarchyClassLoader parent = this.root;
+        for (int level = 0; level < this.depth; level++) {
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            for (int i = 0; i < ClassLookupMissBenchmark.CLASS_COUNT; i++) {
+                String internalName = (ClassLookupMissBenchmark.PACKAGE + "Level" + level + "Class" + i).replace('.', '/');
+                classes.put(internalName, TestJars.generateClass(internalName, "java/lang/Object", 0));
+            }
+            URL jar = TestJars.writeJar(this.directory.resolve("level" + level + ".jar"), classes, true);
+            MinestomExtensionClassLoader loader = new MinestomExtensionClassLoader("level" + level, new URL[] {jar}, this.root);
+            parent.addChild(loader);
+            this.loaders[level] = loader;
+            parent = loader;
+        }
+        this.deepest = this.loaders[this.depth - 1];
+        // Loading a class of the package marks the package as belonging to the hierarchy, so that misses are not looked up
+        // in the platform classloader first
+        this.root.loadClass(ClassLookupMissBenchmark.PACKAGE + "Level0Class0");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.loaders[0].close();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Benchmark
+    public Object distinctMissAsChild() {
+        ClassLookupFailures failures = new ClassLookupFailures();
+        return this.deepest.findClassAsChild(ClassLookupMissBenchmark.PACKAGE + "Missing" + this.missCounter++, false, failures);
+    }
+
+    @Benchmark
+    public Object distinctMissFromDeepestChild() {
+        try {
+            return this.deepest.loadClass(ClassLookupMissBenchmark.PACKAGE + "Missing" + this.missCounter++);
+        } catch (ClassNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object distinctMissFromRoot() {
+        try {
+            return this.root.loadClass(ClassLookupMissBenchmark.PACKAGE + "Missing" + this.missCounter++);
+        } catch (ClassNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object repeatedMissFromRoot() {
+        try {
+            return this.root.loadClass(ClassLookupMissBenchmark.PACKAGE + "Missing");
+        } catch (ClassNotFoundException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.geolykt.starloader.util.JavaInterop;
+
+/**
+ * Compares reading class files through a {@link ClassPathStorage} with reading them through
+ * {@link URLClassLoader#findResource(String)} and {@link URL#openStream()}, which is what the classloaders
+ * do when the storages are disabled. Run with <code>-prof gc</code> to compare the allocation rates as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClassPathStorageBenchmark {
+
+    private static final int CLASS_COUNT = 512;
+
+    /**
+     * Whether the entries of the jar are deflated or stored.
+     */
+    @Param({"true", "false"})
+    public boolean compressed;
+
+    private Path directory;
+    private int next;
+    private String[] paths;
+    private ClassPathStorage storage;
+    private URLClassLoader urlClassLoader;
+
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("sll-classpathstorage-benchmark");
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        this.paths = new String[ClassPathStorageBenchmark.CLASS_COUNT];
+        for (int i = 0; i < ClassPathStorageBenchmark.CLASS_COUNT; i++) {
+            String internalName = "benchmark/storage/Class" + i;
+            classes.put(internalName, TestJars.generateClass(internalName, "java/lang/Object", 32));
+            this.paths[i] = internalName + ".class";
+        }
+        URL jar = TestJars.writeJar(this.directory.resolve("classes.jar"), classes, this.compressed);
+        this.storage = ClassPathStorage.open(jar);
+        this.urlClassLoader = new URLClassLoader(new URL[] {jar}, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.urlClassLoader.close();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    private String nextPath() {
+        String path = this.paths[this.next];
+        this.next = (this.next + 1) % this.paths.length;
+        return path;
+    }
+
+    @Benchmark
+    public byte[] readThroughStorage() throws IOException {
+        return this.storage.read(this.nextPath());
+    }
+
+    @Benchmark
+    public byte[] readThroughURLClassLoader() throws IOException {
+        URL url = this.urlClassLoader.findResource(this.nextPath());
+        try (InputStream in = url.openStream()) {
+            return JavaInterop.readAllBytes(in);
+        }
+    }
+}
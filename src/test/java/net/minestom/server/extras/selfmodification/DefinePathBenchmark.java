@@ -0,0 +1,105 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.ProtectionDomain;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares defining classes that no transformer is interested in through the {@link ByteBuffer} based path
+ * ({@link MinestomRootClassLoader#transformBuffer(ByteBuffer, String, java.net.URI)} followed by
+ * {@link ClassLoader#defineClass(String, ByteBuffer, ProtectionDomain)}) with the <code>byte[]</code> based path
+ * ({@link MinestomRootClassLoader#transformBytes(byte[], String, java.net.URI)} followed by
+ * {@link ClassLoader#defineClass(String, byte[], int, int)}). Run with <code>-prof gc</code> to compare the allocation rates as well.
+ *
+ * <p>A class can only be defined once per classloader, which is why every invocation defines the class in a new,
+ * minimal classloader. Both benchmarks pay for that classloader alike.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DefinePathBenchmark {
+
+    private static final class DefiningClassLoader extends ClassLoader {
+        private DefiningClassLoader() {
+            super(null);
+        }
+
+        private Class<?> define(String name, byte[] bytes) {
+            return super.defineClass(name, bytes, 0, bytes.length);
+        }
+
+        private Class<?> define(String name, ByteBuffer bytes) {
+            return super.defineClass(name, bytes, (ProtectionDomain) null);
+        }
+    }
+
+    private static final int CLASS_COUNT = 64;
+
+    private Path jar;
+    private String[] names;
+    private int next;
+    private String[] paths;
+    private MinestomRootClassLoader root;
+    private ClassPathStorage storage;
+
+    @Setup
+    public void setup() throws IOException {
+        this.jar = Files.createTempFile("sll-definepath-benchmark", ".jar");
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        this.names = new String[DefinePathBenchmark.CLASS_COUNT];
+        this.paths = new String[DefinePathBenchmark.CLASS_COUNT];
+        for (int i = 0; i < DefinePathBenchmark.CLASS_COUNT; i++) {
+            String internalName = "benchmark/define/Class" + i;
+            classes.put(internalName, TestJars.generateClass(internalName, "java/lang/Object", 32));
+            this.names[i] = internalName.replace('/', '.');
+            this.paths[i] = internalName + ".class";
+        }
+        URL url = TestJars.writeJar(this.jar, classes, true);
+        this.storage = ClassPathStorage.open(url);
+        this.root = MinestomRootClassLoader.getInstance();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(this.jar);
+    }
+
+    @Benchmark
+    public Class<?> defineFromBuffer() throws IOException {
+        int index = this.next;
+        this.next = (index + 1) % this.names.length;
+        ByteBuffer bytes = this.storage.readBuffer(this.paths[index]);
+        bytes = this.root.transformBuffer(bytes, this.names[index], null);
+        return new DefiningClassLoader().define(this.names[index], bytes);
+    }
+
+    @Benchmark
+    public Class<?> defineFromByteArray() throws IOException {
+        int index = this.next;
+        this.next = (index + 1) % this.names.length;
+        byte[] bytes = this.storage.read(this.paths[index]);
+        bytes = this.root.transformBytes(bytes, this.names[index], null);
+        return new DefiningClassLoader().define(this.names[index], bytes);
+    }
+}
@@ -0,0 +1,195 @@
+package net.minestom.server.extras.selfmodification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.tree.ClassNode;
+
+import de.geolykt.starloader.transformers.ASMTransformer;
+
+/**
+ * Loads the same classes from several threads at once, with a transformer that is not thread-safe and loads further
+ * classes while transforming a class, much like mixin does. Neither transforming nor querying the transformer may happen concurrently.
+ */
+public class ParallelClassLoadingTest {
+
+    /**
+     * Transformer that is not thread-safe and loads a helper class whenever it transforms a target class.
+     */
+    private static final class LoadingTransformer extends ASMTransformer {
+        private final AtomicInteger concurrentThreads = new AtomicInteger();
+        private final AtomicInteger maximumConcurrentThreads = new AtomicInteger();
+        private final AtomicInteger maximumConcurrentValidTargetCalls = new AtomicInteger();
+        private final AtomicInteger validTargetCalls = new AtomicInteger();
+        /**
+         * The depth of nested invocations on the current thread, as loading a helper class invokes the transformer again.
+         */
+        private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+        /**
+         * The amount of times each class was transformed, keyed by the internal name of the class.
+         */
+        private final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean accept(@NotNull ClassNode node) {
+            this.invocations.computeIfAbsent(node.name, (name) -> new AtomicInteger()).incrementAndGet();
+            int[] depth = this.depth.get();
+            if (depth[0]++ == 0) {
+                int concurrent = this.concurrentThreads.incrementAndGet();
+                this.maximumConcurrentThreads.accumulateAndGet(concurrent, Math::max);
+            }
+            try {
+                String simpleName = node.name.substring(node.name.lastIndexOf('/') + 1);
+                if (simpleName.startsWith("Target")) {
+                    int index = Integer.parseInt(simpleName.substring("Target".length()));
+                    String packageName = node.name.substring(0, node.name.lastIndexOf('/')).replace('/', '.');
+                    Class.forName(packageName + ".Helper" + (index % ParallelClassLoadingTest.HELPER_COUNT), false, MinestomRootClassLoader.getInstance());
+                }
+                return false;
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                if (--depth[0] == 0) {
+                    this.concurrentThreads.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public boolean isValidTarget(@NotNull String internalName) {
+            int concurrent = this.validTargetCalls.incrementAndGet();
+            this.maximumConcurrentValidTargetCalls.accumulateAndGet(concurrent, Math::max);
+            try {
+                return internalName.startsWith(ParallelClassLoadingTest.PACKAGE);
+            } finally {
+                this.validTargetCalls.decrementAndGet();
+            }
+        }
+    }
+
+    private static final int HELPER_COUNT = 16;
+    private static final String PACKAGE = "parallelclassloadingtest/";
+    private static final int ROUNDS = 8;
+    private static final int TARGET_COUNT = 64;
+    private static final int THREAD_COUNT = 8;
+
+    @Test
+    public void testConcurrentLoadingWithSerialTransformer(@TempDir Path directory) throws Exception {
+        MinestomRootClassLoader root = MinestomRootClassLoader.getInstance();
+        LoadingTransformer transformer = new LoadingTransformer();
+        root.addASMTransformer(transformer);
+        List<String> allNames = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(ParallelClassLoadingTest.THREAD_COUNT, (runnable) -> {
+            Thread thread = new Thread(runnable, "ParallelClassLoadingTest");
+            // A deadlocked thread must not keep the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (int round = 0; round < ParallelClassLoadingTest.ROUNDS; round++) {
+                // Classes can only be defined once, which is why every round uses it's own package
+                String packageName = ParallelClassLoadingTest.PACKAGE + "round" + round + "/";
+                Map<String, byte[]> targets = new LinkedHashMap<>();
+                for (int i = 0; i < ParallelClassLoadingTest.TARGET_COUNT; i++) {
+                    // Chains of superclasses cause classes to be loaded while a class is defined
+                    String superName = i % 4 == 0 ? "java/lang/Object" : packageName + "Target" + (i - 1);
+                    targets.put(packageName + "Target" + i, TestJars.generateClass(packageName + "Target" + i, superName, 0));
+                }
+                Map<String, byte[]> helpers = new LinkedHashMap<>();
+                for (int i = 0; i < ParallelClassLoadingTest.HELPER_COUNT; i++) {
+                    helpers.put(packageName + "Helper" + i, TestJars.generateClass(packageName + "Helper" + i, "java/lang/Object", 0));
+                }
+
+                MinestomExtensionClassLoader targetLoader = new MinestomExtensionClassLoader("targets-" + round, new URL[] {TestJars.writeJar(directory.resolve("targets-" + round + ".jar"), targets, true)}, root);
+                MinestomExtensionClassLoader helperLoader = new MinestomExtensionClassLoader("helpers-" + round, new URL[] {TestJars.writeJar(directory.resolve("helpers-" + round + ".jar"), helpers, true)}, root);
+                root.addChild(targetLoader);
+                root.addChild(helperLoader);
+
+                List<String> names = new ArrayList<>();
+                for (String internalName : targets.keySet()) {
+                    names.add(internalName.replace('/', '.'));
+                }
+                for (String internalName : helpers.keySet()) {
+                    names.add(internalName.replace('/', '.'));
+                }
+                allNames.addAll(names);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Map<String, Class<?>>>> futures = new ArrayList<>();
+                for (int thread = 0; thread < ParallelClassLoadingTest.THREAD_COUNT; thread++) {
+                    List<String> order = new ArrayList<>(names);
+                    Collections.shuffle(order, new Random(round * 31L + thread));
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        Map<String, Class<?>> loaded = new LinkedHashMap<>();
+                        for (String name : order) {
+                            loaded.put(name, root.loadClass(name));
+                        }
+                        return loaded;
+                    }));
+                }
+                start.countDown();
+
+                Map<String, Class<?>> expected = null;
+                for (Future<Map<String, Class<?>>> future : futures) {
+                    Map<String, Class<?>> loaded;
+                    try {
+                        loaded = future.get(1, TimeUnit.MINUTES);
+                    } catch (TimeoutException e) {
+                        fail("Class loading did not complete within a minute, which suggests a deadlock", e);
+                        return;
+                    } catch (ExecutionException e) {
+                        throw new AssertionError("Class loading failed", e.getCause());
+                    }
+                    assertEquals(names.size(), loaded.size());
+                    if (expected == null) {
+                        expected = loaded;
+                        continue;
+                    }
+                    for (String name : names) {
+                        assertSame(expected.get(name), loaded.get(name), "Threads obtained different classes for " + name);
+                    }
+                }
+
+                for (String name : names) {
+                    ClassLoader definingLoader = expected.get(name).getClassLoader();
+                    assertSame(name.contains(".Target") ? targetLoader : helperLoader, definingLoader, "Unexpected defining classloader of " + name);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            root.removeASMTransformer(transformer);
+        }
+
+        assertEquals(1, transformer.maximumConcurrentThreads.get(), "The transformer is not thread-safe but was invoked concurrently");
+        assertEquals(1, transformer.maximumConcurrentValidTargetCalls.get(), "The transformer is not thread-safe but was queried concurrently");
+        for (String name : allNames) {
+            AtomicInteger invocations = transformer.invocations.get(name.replace('.', '/'));
+            assertEquals(1, invocations == null ? 0 : invocations.get(), "Unexpected amount of transformations of " + name);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.minestom.server.extras.selfmodification;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Generates classes and jars containing them for the tests and benchmarks of the classloaders.
+ */
+final class TestJars {
+
+    /**
+     * Generates a class with a public no-args constructor.
+     *
+     * @param internalName The internal name of the class
+     * @param superName The internal name of the superclass, which must have a public no-args constructor
+     * @param methodCount The amount of additional methods, which are used to bring the class to a realistic size
+     * @return The bytecode of the class
+     */
+    static byte @NotNull[] generateClass(@NotNull String internalName, @NotNull String superName, int methodCount) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, superName, null);
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        for (int i = 0; i < methodCount; i++) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "(I)I", null, null);
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitLdcInsn(i * 31 + 7);
+            method.visitInsn(Opcodes.IMUL);
+            method.visitLdcInsn(internalName + "#method" + i);
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "length", "()I", false);
+            method.visitInsn(Opcodes.IADD);
+            method.visitInsn(Opcodes.IRETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes classes into a jar.
+     *
+     * @param file The file to write the jar to
+     * @param classes The bytecode of the classes, keyed by their internal name
+     * @param compressed Whether the entries are deflated (as opposed to stored)
+     * @return The URL of the jar
+     * @throws IOException If the jar could not be written
+     */
+    @NotNull
+    static URL writeJar(@NotNull Path file, @NotNull Map<String, byte[]> classes, boolean compressed) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+                JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                byte[] bytes = entry.getValue();
+                JarEntry jarEntry = new JarEntry(entry.getKey() + ".class");
+                if (!compressed) {
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    jarEntry.setMethod(ZipEntry.STORED);
+                    jarEntry.setSize(bytes.length);
+                    jarEntry.setCompressedSize(bytes.length);
+                    jarEntry.setCrc(crc.getValue());
+                }
+                jarOut.putNextEntry(jarEntry);
+                jarOut.write(bytes);
+                jarOut.closeEntry();
+            }
+        }
+        return file.toUri().toURL();
+    }
+
+    private TestJars() {
+        throw new AssertionError();
+    }
+}